@@ -15,6 +15,7 @@
  */
 package me.zhengjie.annotation;
 
+import me.zhengjie.aspect.LimitAlgorithm;
 import me.zhengjie.aspect.LimitType;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -46,4 +47,7 @@ public @interface Limit {
     // 限制类型
     LimitType limitType() default LimitType.CUSTOMER;
 
+    // 限流算法
+    LimitAlgorithm algorithm() default LimitAlgorithm.FIXED_WINDOW;
+
 }
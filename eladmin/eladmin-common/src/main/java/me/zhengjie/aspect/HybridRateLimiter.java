@@ -0,0 +1,79 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.aspect;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import me.zhengjie.annotation.Limit;
+import me.zhengjie.config.properties.LimitProperties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 从 Redis 批量租用许可，在本地消费，高频 key 访问 Redis 的次数约降为 1/leaseSize
+ * 租用的许可已在 Redis 中扣除，租期不超过 Redis 返回的有效时间(窗口剩余时间)，窗口重置后未用完的许可作废
+ * 因此各节点合计放行数不超过每个窗口的限制，只会少放行
+ * Redis 拒绝后在租期内直接本地拒绝，避免被限流的请求继续访问 Redis
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public class HybridRateLimiter implements RateLimiter {
+
+    private final RedisRateLimiter redisRateLimiter;
+    private final int leaseSize;
+    private final long leaseTtl;
+    private final Cache<String, Lease> leases;
+
+    public HybridRateLimiter(RedisRateLimiter redisRateLimiter, LimitProperties properties) {
+        this.redisRateLimiter = redisRateLimiter;
+        this.leaseSize = properties.getLeaseSize();
+        this.leaseTtl = properties.getLeaseTtl();
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(leaseTtl, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String key, Limit limit) {
+        Lease lease = leases.get(key, k -> new Lease());
+        synchronized (lease) {
+            long now = System.currentTimeMillis();
+            if (now < lease.deadline) {
+                if (lease.remaining > 0) {
+                    lease.remaining--;
+                    return true;
+                }
+                if (lease.rejected) {
+                    return false;
+                }
+            }
+            // 次数较少的限制按单次申请，保持与 redis 模式相同的精度
+            int batch = Math.max(1, Math.min(leaseSize, limit.count() / 10));
+            RedisRateLimiter.Grant grant = redisRateLimiter.acquire(key, limit, batch);
+            int permits = grant.getPermits();
+            lease.deadline = now + Math.min(leaseTtl, grant.getTtl());
+            lease.rejected = permits <= 0;
+            lease.remaining = Math.max(0, permits - 1);
+            return permits > 0;
+        }
+    }
+
+    private static final class Lease {
+        private int remaining;
+        private long deadline;
+        private boolean rejected;
+    }
+}
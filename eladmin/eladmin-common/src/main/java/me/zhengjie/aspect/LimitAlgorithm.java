@@ -0,0 +1,30 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.aspect;
+
+/**
+ * 限流算法
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public enum LimitAlgorithm {
+    // 固定窗口，每个周期内最多 count 次
+    FIXED_WINDOW,
+    // 滑动窗口，任意一个周期内最多 count 次，按前后两个窗口加权估算
+    SLIDING_WINDOW,
+    // 令牌桶，容量为 count，每个周期补满，允许短时突发
+    TOKEN_BUCKET
+}
@@ -15,8 +15,6 @@
  */
 package me.zhengjie.aspect;
 
-import cn.hutool.core.util.ObjUtil;
-import com.google.common.collect.ImmutableList;
 import me.zhengjie.annotation.Limit;
 import me.zhengjie.exception.BadRequestException;
 import me.zhengjie.utils.RequestHolder;
@@ -28,9 +26,6 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
-import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
@@ -42,11 +37,11 @@ import java.lang.reflect.Method;
 @Component
 public class LimitAspect {
 
-    private final RedisTemplate<Object,Object> redisTemplate;
+    private final RateLimiter rateLimiter;
     private static final Logger logger = LoggerFactory.getLogger(LimitAspect.class);
 
-    public LimitAspect(RedisTemplate<Object,Object> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    public LimitAspect(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
     }
 
     @Pointcut("@annotation(me.zhengjie.annotation.Limit)")
@@ -69,32 +64,12 @@ public class LimitAspect {
             }
         }
 
-        ImmutableList<Object> keys = ImmutableList.of(StringUtils.join(limit.prefix(), "_", key, "_", request.getRequestURI().replace("/","_")));
-
-        String luaScript = buildLuaScript();
-        RedisScript<Long> redisScript = new DefaultRedisScript<>(luaScript, Long.class);
-        Long count = redisTemplate.execute(redisScript, keys, limit.count(), limit.period());
-        if (ObjUtil.isNotNull(count) && count.intValue() <= limit.count()) {
-            logger.info("第{}次访问key为 {}，描述为 [{}] 的接口", count, keys, limit.name());
+        String limitKey = StringUtils.join(limit.prefix(), "_", key, "_", request.getRequestURI().replace("/","_"));
+        if (rateLimiter.tryAcquire(limitKey, limit)) {
+            logger.debug("访问key为 {}，描述为 [{}] 的接口", limitKey, limit.name());
             return joinPoint.proceed();
         } else {
             throw new BadRequestException("访问次数受限制");
         }
     }
-
-    /**
-     * 限流脚本
-     */
-    private String buildLuaScript() {
-        return "local c" +
-                "\nc = redis.call('get',KEYS[1])" +
-                "\nif c and tonumber(c) > tonumber(ARGV[1]) then" +
-                "\nreturn c;" +
-                "\nend" +
-                "\nc = redis.call('incr',KEYS[1])" +
-                "\nif tonumber(c) == 1 then" +
-                "\nredis.call('expire',KEYS[1],ARGV[2])" +
-                "\nend" +
-                "\nreturn c;";
-    }
 }
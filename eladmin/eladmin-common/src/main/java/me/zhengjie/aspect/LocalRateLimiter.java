@@ -0,0 +1,123 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.aspect;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import me.zhengjie.annotation.Limit;
+import me.zhengjie.config.properties.LimitProperties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地内存限流，不访问 Redis，只适合单节点部署
+ * 每个 key 独立加锁，不同 key 之间互不竞争；空闲超过两个周期的 key 自动清除
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public class LocalRateLimiter implements RateLimiter {
+
+    private final Cache<String, State> states;
+
+    public LocalRateLimiter(LimitProperties properties) {
+        this.states = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfter(new Expiry<String, State>() {
+                    @Override
+                    public long expireAfterCreate(String key, State state, long currentTime) {
+                        return state.ttl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, State state, long currentTime, long currentDuration) {
+                        return state.ttl;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, State state, long currentTime, long currentDuration) {
+                        return state.ttl;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String key, Limit limit) {
+        long period = limit.period() * 1000L;
+        State state = states.get(key, k -> new State(TimeUnit.MILLISECONDS.toNanos(period * 2)));
+        return state.acquire(limit.algorithm(), limit.count(), period, System.currentTimeMillis());
+    }
+
+    /**
+     * 单个 key 的计数，三种算法与 RedisRateLimiter 中的脚本一致
+     */
+    static final class State {
+
+        private final long ttl;
+        /** 固定窗口、滑动窗口：当前窗口编号 */
+        private long window = -1;
+        /** 固定窗口、滑动窗口：当前窗口计数；令牌桶：剩余令牌 */
+        private double current = -1;
+        /** 滑动窗口：上一个窗口计数 */
+        private double previous;
+        /** 令牌桶：上次补充时间 */
+        private long timestamp;
+
+        State(long ttl) {
+            this.ttl = ttl;
+        }
+
+        synchronized boolean acquire(LimitAlgorithm algorithm, int limit, long period, long now) {
+            switch (algorithm) {
+                case SLIDING_WINDOW:
+                    long slidingWindow = now / period;
+                    if (slidingWindow != window) {
+                        previous = slidingWindow == window + 1 ? current : 0;
+                        current = 0;
+                        window = slidingWindow;
+                    }
+                    if (previous * (1 - (double) (now % period) / period) + current + 1 > limit) {
+                        return false;
+                    }
+                    current++;
+                    return true;
+                case TOKEN_BUCKET:
+                    if (current < 0) {
+                        current = limit;
+                        timestamp = now;
+                    }
+                    current = Math.min(limit, current + Math.max(0, now - timestamp) * (double) limit / period);
+                    timestamp = now;
+                    if (current < 1) {
+                        return false;
+                    }
+                    current--;
+                    return true;
+                default:
+                    long fixedWindow = now / period;
+                    if (fixedWindow != window) {
+                        current = 0;
+                        window = fixedWindow;
+                    }
+                    if (current + 1 > limit) {
+                        return false;
+                    }
+                    current++;
+                    return true;
+            }
+        }
+    }
+}
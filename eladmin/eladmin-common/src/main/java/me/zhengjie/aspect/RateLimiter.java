@@ -0,0 +1,34 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.aspect;
+
+import me.zhengjie.annotation.Limit;
+
+/**
+ * 限流引擎，由 limit.mode 选择实现
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public interface RateLimiter {
+
+    /**
+     * 申请一次访问许可
+     * @param key 限流 key
+     * @param limit 限流配置
+     * @return 是否允许访问
+     */
+    boolean tryAcquire(String key, Limit limit);
+}
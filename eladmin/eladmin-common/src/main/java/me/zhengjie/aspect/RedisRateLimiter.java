@@ -0,0 +1,156 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.aspect;
+
+import me.zhengjie.annotation.Limit;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于 Redis 的限流，脚本在类加载时构建一次，执行时使用 EVALSHA，Redis 未缓存时自动回退到 EVAL
+ * 脚本返回实际获得的许可数量与许可的有效时间，便于 hybrid 模式批量租用
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public class RedisRateLimiter implements RateLimiter {
+
+    /**
+     * 公共部分：ARGV[1] 申请数量，ARGV[2] 周期内允许次数，ARGV[3] 周期/毫秒
+     */
+    private static final String ARGS = "local permits = tonumber(ARGV[1])" +
+            "\nlocal limit = tonumber(ARGV[2])" +
+            "\nlocal period = tonumber(ARGV[3])";
+
+    /**
+     * 使用 Redis 服务器时间，多节点之间不受本地时钟影响
+     */
+    private static final String NOW = "\nredis.replicate_commands()" +
+            "\nlocal time = redis.call('time')" +
+            "\nlocal now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)";
+
+    private static final String FIXED_WINDOW = ARGS +
+            "\nlocal c = tonumber(redis.call('get', KEYS[1]) or '0')" +
+            "\nlocal grant = math.min(permits, limit - c)" +
+            "\nif grant <= 0 then" +
+            "\ngrant = 0" +
+            "\nelseif redis.call('incrby', KEYS[1], grant) == grant then" +
+            "\nredis.call('pexpire', KEYS[1], period)" +
+            "\nend" +
+            "\nlocal ttl = redis.call('pttl', KEYS[1])" +
+            "\nif ttl < 0 then ttl = period end" +
+            "\nreturn {grant, ttl}";
+
+    private static final String SLIDING_WINDOW = ARGS + NOW +
+            "\nlocal window = math.floor(now / period)" +
+            "\nlocal data = redis.call('hmget', KEYS[1], 'w', 'c', 'p')" +
+            "\nlocal w = tonumber(data[1]) or window" +
+            "\nlocal c = tonumber(data[2]) or 0" +
+            "\nlocal p = tonumber(data[3]) or 0" +
+            "\nif w ~= window then" +
+            "\nif w == window - 1 then p = c else p = 0 end" +
+            "\nc = 0" +
+            "\nend" +
+            "\nlocal used = p * (1 - (now % period) / period) + c" +
+            "\nlocal grant = math.max(0, math.min(permits, math.floor(limit - used)))" +
+            "\nc = c + grant" +
+            "\nredis.call('hmset', KEYS[1], 'w', window, 'c', c, 'p', p)" +
+            "\nredis.call('pexpire', KEYS[1], period * 2)" +
+            "\nreturn {grant, period - now % period}";
+
+    private static final String TOKEN_BUCKET = ARGS + NOW +
+            "\nlocal data = redis.call('hmget', KEYS[1], 't', 'ts')" +
+            "\nlocal tokens = tonumber(data[1]) or limit" +
+            "\nlocal ts = tonumber(data[2]) or now" +
+            "\ntokens = math.min(limit, tokens + math.max(0, now - ts) * limit / period)" +
+            "\nlocal grant = math.max(0, math.min(permits, math.floor(tokens)))" +
+            "\ntokens = tokens - grant" +
+            "\nredis.call('hmset', KEYS[1], 't', tokens, 'ts', now)" +
+            "\nredis.call('pexpire', KEYS[1], period)" +
+            "\nreturn {grant, math.ceil(math.max(grant, 1 - tokens) * period / limit)}";
+
+    @SuppressWarnings("rawtypes")
+    private static final Map<LimitAlgorithm, DefaultRedisScript<List>> SCRIPTS = new EnumMap<>(LimitAlgorithm.class);
+
+    static {
+        SCRIPTS.put(LimitAlgorithm.FIXED_WINDOW, new DefaultRedisScript<>(FIXED_WINDOW, List.class));
+        SCRIPTS.put(LimitAlgorithm.SLIDING_WINDOW, new DefaultRedisScript<>(SLIDING_WINDOW, List.class));
+        SCRIPTS.put(LimitAlgorithm.TOKEN_BUCKET, new DefaultRedisScript<>(TOKEN_BUCKET, List.class));
+    }
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+
+    public RedisRateLimiter(RedisTemplate<Object, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean tryAcquire(String key, Limit limit) {
+        return acquire(key, limit, 1).getPermits() > 0;
+    }
+
+    /**
+     * 申请多个许可
+     * @param key 限流 key
+     * @param limit 限流配置
+     * @param permits 申请数量
+     * @return 实际获得的数量，可能小于申请数量，以及许可的有效时间
+     */
+    public Grant acquire(String key, Limit limit, int permits) {
+        long period = limit.period() * 1000L;
+        // 参数按字符串传递，避免经过 value 的 JSON 序列化
+        List<?> result = redisTemplate.execute(SCRIPTS.get(limit.algorithm()), StringRedisSerializer.UTF_8, null,
+                Collections.singletonList(key), String.valueOf(permits), String.valueOf(limit.count()),
+                String.valueOf(period));
+        if (result == null || result.size() < 2) {
+            return new Grant(0, period);
+        }
+        return new Grant(((Number) result.get(0)).intValue(), ((Number) result.get(1)).longValue());
+    }
+
+    /**
+     * 申请结果
+     */
+    public static final class Grant {
+
+        private final int permits;
+        private final long ttl;
+
+        Grant(int permits, long ttl) {
+            this.permits = permits;
+            this.ttl = ttl;
+        }
+
+        /**
+         * 获得的许可数量
+         */
+        public int getPermits() {
+            return permits;
+        }
+
+        /**
+         * 许可的有效时间/毫秒：固定窗口与滑动窗口为当前窗口的剩余时间，令牌桶为补充这些令牌所需的时间
+         * 被拒绝时为可以再次申请前的时间
+         */
+        public long getTtl() {
+            return ttl;
+        }
+    }
+}
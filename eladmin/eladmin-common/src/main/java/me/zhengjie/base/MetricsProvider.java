@@ -0,0 +1,38 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.base;
+
+import java.util.Map;
+
+/**
+ * 运行指标，实现该接口的 Bean 会在服务监控的 /api/monitor/metrics 中展示
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public interface MetricsProvider {
+
+    /**
+     * 指标名称
+     * @return /
+     */
+    String getMetricsName();
+
+    /**
+     * 指标数据
+     * @return /
+     */
+    Map<String, Object> getMetrics();
+}
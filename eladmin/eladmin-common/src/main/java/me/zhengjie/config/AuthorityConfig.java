@@ -16,11 +16,7 @@
 package me.zhengjie.config;
 
 import me.zhengjie.utils.SecurityUtils;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author Zheng Jie
@@ -34,9 +30,7 @@ public class AuthorityConfig {
      * @return /
      */
     public Boolean check(String ...permissions){
-        // 获取当前用户的所有权限
-        List<String> elPermissions = SecurityUtils.getCurrentUser().getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList());
-        // 判断当前用户的所有权限是否包含接口上定义的权限
-        return elPermissions.contains("admin") || Arrays.stream(permissions).anyMatch(elPermissions::contains);
+        // 判断当前用户的所有权限是否包含接口上定义的权限，权限集合同一个请求内只加载一次
+        return SecurityUtils.getCurrentPermissions().hasAny(permissions);
     }
 }
@@ -0,0 +1,143 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.config;
+
+import com.alibaba.fastjson2.JSON;
+import org.springframework.cache.interceptor.KeyGenerator;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存 key 生成策略
+ * 直接将类名、方法签名与参数写入 64 位哈希，不再构建 Map 与 JSON 字符串
+ * 常见类型(基本类型、字符串、枚举、日期、数组、集合、Map)逐个写入，其他复杂对象退回到 JSON 字节
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public class CacheKeyGenerator implements KeyGenerator {
+
+    private static final long SEED = 0xCBF29CE484222325L;
+    private static final long PRIME = 0x9E3779B97F4A7C15L;
+
+    private static final long NULL = 1, TRUE = 2, FALSE = 3, INTEGER = 4, DECIMAL = 5, CHARS = 6,
+            ENUM = 7, DATE = 8, ARRAY = 9, COLLECTION = 10, MAP = 11, BYTES = 12, OBJECT = 13;
+
+    /** 方法签名的哈希，只计算一次 */
+    private final Map<Method, Long> methodHashes = new ConcurrentHashMap<>();
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        long hash = mix(SEED, chars(SEED, target.getClass().getName()));
+        hash = mix(hash, methodHashes.computeIfAbsent(method, m -> chars(SEED, m.toGenericString())));
+        hash = mix(hash, params.length);
+        for (Object param : params) {
+            hash = value(hash, param);
+        }
+        return Long.toHexString(finish(hash));
+    }
+
+    private long value(long hash, Object value) {
+        if (value == null) {
+            return mix(hash, NULL);
+        }
+        if (value instanceof String) {
+            return chars(mix(hash, CHARS), (String) value);
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return mix(mix(hash, INTEGER), ((Number) value).longValue());
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return mix(mix(hash, DECIMAL), Double.doubleToLongBits(((Number) value).doubleValue()));
+        }
+        if (value instanceof Boolean) {
+            return mix(hash, (Boolean) value ? TRUE : FALSE);
+        }
+        if (value instanceof Character) {
+            return mix(mix(hash, CHARS), (Character) value);
+        }
+        if (value instanceof Enum) {
+            return chars(mix(hash, ENUM), ((Enum<?>) value).name());
+        }
+        if (value instanceof Date) {
+            return mix(mix(hash, DATE), ((Date) value).getTime());
+        }
+        if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            hash = mix(mix(hash, ARRAY), array.length);
+            for (Object item : array) {
+                hash = value(hash, item);
+            }
+            return hash;
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            hash = mix(mix(hash, COLLECTION), collection.size());
+            for (Object item : collection) {
+                hash = value(hash, item);
+            }
+            return hash;
+        }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            hash = mix(mix(hash, MAP), map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                hash = value(value(hash, entry.getKey()), entry.getValue());
+            }
+            return hash;
+        }
+        if (value instanceof byte[]) {
+            return bytes(mix(hash, BYTES), (byte[]) value);
+        }
+        // 复杂对象与其他数组，按结构序列化后写入
+        return bytes(chars(mix(hash, OBJECT), value.getClass().getName()), JSON.toJSONBytes(value));
+    }
+
+    private static long chars(long hash, String value) {
+        hash = mix(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * PRIME;
+        }
+        return hash;
+    }
+
+    private static long bytes(long hash, byte[] value) {
+        hash = mix(hash, value.length);
+        for (byte b : value) {
+            hash = (hash ^ (b & 0xFF)) * PRIME;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value * PRIME;
+        return Long.rotateLeft(hash, 31) * PRIME;
+    }
+
+    /**
+     * MurmurHash3 fmix64，打散低位
+     */
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB93FE1A85394L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
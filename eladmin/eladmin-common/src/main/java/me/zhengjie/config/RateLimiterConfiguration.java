@@ -0,0 +1,46 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.config;
+
+import me.zhengjie.aspect.HybridRateLimiter;
+import me.zhengjie.aspect.LocalRateLimiter;
+import me.zhengjie.aspect.RateLimiter;
+import me.zhengjie.aspect.RedisRateLimiter;
+import me.zhengjie.config.properties.LimitProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * 根据 limit.mode 创建限流引擎
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Configuration
+public class RateLimiterConfiguration {
+
+    @Bean
+    public RateLimiter rateLimiter(LimitProperties properties, RedisTemplate<Object, Object> redisTemplate) {
+        switch (properties.getMode()) {
+            case LOCAL:
+                return new LocalRateLimiter(properties);
+            case HYBRID:
+                return new HybridRateLimiter(new RedisRateLimiter(redisTemplate), properties);
+            default:
+                return new RedisRateLimiter(redisTemplate);
+        }
+    }
+}
@@ -16,10 +16,18 @@
 package me.zhengjie.config;
 
 import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONB;
 import com.alibaba.fastjson2.JSONFactory;
+import com.alibaba.fastjson2.JSONReader;
 import com.alibaba.fastjson2.JSONWriter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.digest.MurmurHash3;
+import me.zhengjie.config.properties.RedisSerializerProperties;
+import me.zhengjie.config.properties.NearCacheProperties;
+import me.zhengjie.utils.NearCache;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.cache.Cache;
@@ -34,14 +42,14 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * @author Zheng Jie
@@ -50,19 +58,22 @@ import java.util.Map;
 @Slf4j
 @Configuration
 @EnableCaching
+@RequiredArgsConstructor
 @AutoConfigureBefore(RedisAutoConfiguration.class)
 public class RedisConfiguration extends CachingConfigurerSupport {
 
     // 自动识别json对象白名单配置（仅允许解析的包名，范围越小越安全）
     private static final String[] WHITELIST_STR = {"me.zhengjie" };
 
+    private final RedisSerializerProperties serializerProperties;
+
     /**
      *  设置 redis 数据默认过期时间，默认2小时
      *  设置@cacheable 序列化方式
      */
     @Bean
     public RedisCacheConfiguration redisCacheConfiguration(){
-        FastJsonRedisSerializer<Object> fastJsonRedisSerializer = new FastJsonRedisSerializer<>(Object.class);
+        FastJsonRedisSerializer<Object> fastJsonRedisSerializer = new FastJsonRedisSerializer<>(Object.class, serializerProperties);
         RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig();
         configuration = configuration.serializeValuesWith(RedisSerializationContext.
                 SerializationPair.fromSerializer(fastJsonRedisSerializer)).entryTtl(Duration.ofHours(2));
@@ -73,7 +84,7 @@ public class RedisConfiguration extends CachingConfigurerSupport {
     public RedisTemplate<Object, Object> redisTemplate(RedisConnectionFactory redisConnectionFactory) {
         RedisTemplate<Object, Object> template = new RedisTemplate<>();
         // 指定 key 和 value 的序列化方案
-        FastJsonRedisSerializer<Object> fastJsonRedisSerializer = new FastJsonRedisSerializer<>(Object.class);
+        FastJsonRedisSerializer<Object> fastJsonRedisSerializer = new FastJsonRedisSerializer<>(Object.class, serializerProperties);
         // value值的序列化采用fastJsonRedisSerializer
         template.setValueSerializer(fastJsonRedisSerializer);
         template.setHashValueSerializer(fastJsonRedisSerializer);
@@ -101,29 +112,28 @@ public class RedisConfiguration extends CachingConfigurerSupport {
                 .build();
     }
 
+    /**
+     * 订阅本地缓存失效通知
+     * @param redisConnectionFactory /
+     * @param nearCache 本地缓存
+     * @param properties 本地缓存配置
+     * @return /
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                       NearCache nearCache, NearCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(nearCache, new ChannelTopic(properties.getChannel()));
+        return container;
+    }
+
     /**
      * 自定义缓存key生成策略
      */
     @Bean
     public KeyGenerator keyGenerator() {
-        return (target, method, params) -> {
-            Map<String,Object> container = new HashMap<>(8);
-            Class<?> targetClassClass = target.getClass();
-            // 类地址
-            container.put("class",targetClassClass.toGenericString());
-            // 方法名称
-            container.put("methodName",method.getName());
-            // 包名称
-            container.put("package",targetClassClass.getPackage());
-            // 参数列表
-            for (int i = 0; i < params.length; i++) {
-                container.put(String.valueOf(i),params[i]);
-            }
-            // 转为JSON字符串
-            String jsonString = JSON.toJSONString(container);
-            // 使用 MurmurHash 生成 hash
-            return Integer.toHexString(MurmurHash3.hash32x86(jsonString.getBytes()));
-        };
+        return new CacheKeyGenerator();
     }
 
     @Bean
@@ -155,17 +165,31 @@ public class RedisConfiguration extends CachingConfigurerSupport {
 
     /**
      * Value 序列化
+     * json 格式与旧版本一致，直接写入 UTF-8 JSON
+     * jsonb 格式带 3 字节头：魔数、版本、标记位(LZ4 压缩)，压缩时头后紧跟 4 字节原始长度
+     * 读取时根据魔数区分，两种格式都能解析，便于滚动升级
      *
      * @param <T>
      * @author /
      */
     static class FastJsonRedisSerializer<T> implements RedisSerializer<T> {
 
+        /** UTF-8 中不会出现的字节，JSON 文本不可能以它开头 */
+        static final byte MAGIC = (byte) 0xFE;
+        static final byte VERSION = 1;
+        static final byte FLAG_LZ4 = 1;
+        private static final int HEADER_LENGTH = 3;
+        /** 解压后允许的最大长度，防止异常数据导致内存溢出 */
+        private static final int MAX_LENGTH = 64 * 1024 * 1024;
+        private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
         private final Class<T> clazz;
+        private final RedisSerializerProperties properties;
 
-        FastJsonRedisSerializer(Class<T> clazz) {
+        FastJsonRedisSerializer(Class<T> clazz, RedisSerializerProperties properties) {
             super();
             this.clazz = clazz;
+            this.properties = properties;
         }
 
         @Override
@@ -174,7 +198,28 @@ public class RedisConfiguration extends CachingConfigurerSupport {
             if (t == null) {
                 return new byte[0];
             }
-            return JSON.toJSONString(t, JSONWriter.Feature.WriteClassName).getBytes(StandardCharsets.UTF_8);
+            if (properties.getFormat() != RedisSerializerProperties.Format.JSONB) {
+                return JSON.toJSONBytes(t, JSONWriter.Feature.WriteClassName);
+            }
+            byte[] body = JSONB.toBytes(t, JSONWriter.Feature.WriteClassName, JSONWriter.Feature.WriteNameAsSymbol);
+            int threshold = properties.getCompressThreshold();
+            if (threshold <= 0 || body.length <= threshold) {
+                byte[] bytes = new byte[HEADER_LENGTH + body.length];
+                writeHeader(bytes, (byte) 0);
+                System.arraycopy(body, 0, bytes, HEADER_LENGTH, body.length);
+                return bytes;
+            }
+            LZ4Compressor compressor = LZ4.fastCompressor();
+            int offset = HEADER_LENGTH + 4;
+            int maxLength = compressor.maxCompressedLength(body.length);
+            byte[] bytes = new byte[offset + maxLength];
+            writeHeader(bytes, FLAG_LZ4);
+            bytes[3] = (byte) (body.length >>> 24);
+            bytes[4] = (byte) (body.length >>> 16);
+            bytes[5] = (byte) (body.length >>> 8);
+            bytes[6] = (byte) body.length;
+            int length = compressor.compress(body, 0, body.length, bytes, offset, maxLength);
+            return Arrays.copyOf(bytes, offset + length);
         }
 
         @Override
@@ -183,9 +228,46 @@ public class RedisConfiguration extends CachingConfigurerSupport {
             if (bytes == null || bytes.length == 0) {
                 return null;
             }
-            String str = new String(bytes, StandardCharsets.UTF_8);
-            return JSON.parseObject(str, clazz);
+            // 旧格式，直接从 byte[] 解析 UTF-8 JSON
+            if (bytes[0] != MAGIC) {
+                return JSON.parseObject(bytes, clazz);
+            }
+            if (bytes.length < HEADER_LENGTH || bytes[1] != VERSION) {
+                throw new SerializationException("Unsupported redis value version: " + (bytes.length > 1 ? bytes[1] : -1));
+            }
+            if ((bytes[2] & FLAG_LZ4) == 0) {
+                return readJsonb(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            }
+            if (bytes.length < HEADER_LENGTH + 4) {
+                throw new SerializationException("Truncated redis value: " + bytes.length + " bytes");
+            }
+            int length = ((bytes[3] & 0xFF) << 24) | ((bytes[4] & 0xFF) << 16) | ((bytes[5] & 0xFF) << 8) | (bytes[6] & 0xFF);
+            if (length < 0 || length > MAX_LENGTH) {
+                throw new SerializationException("Invalid redis value length: " + length);
+            }
+            // 按压缩数据的实际长度解压，数据被截断时抛出异常，不会越界读取
+            byte[] body = new byte[length];
+            int offset = HEADER_LENGTH + 4;
+            try {
+                if (LZ4.safeDecompressor().decompress(bytes, offset, bytes.length - offset, body, 0) != length) {
+                    throw new SerializationException("Corrupted redis value: length mismatch");
+                }
+            } catch (LZ4Exception e) {
+                throw new SerializationException("Corrupted redis value", e);
+            }
+            return readJsonb(body, 0, body.length);
         }
 
+        private T readJsonb(byte[] bytes, int offset, int length) {
+            try (JSONReader reader = JSONReader.ofJSONB(bytes, offset, length)) {
+                return reader.read(clazz);
+            }
+        }
+
+        private static void writeHeader(byte[] bytes, byte flags) {
+            bytes[0] = MAGIC;
+            bytes[1] = VERSION;
+            bytes[2] = flags;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 数据权限配置
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "data-scope")
+public class DataScopeProperties {
+
+    /**
+     * 部门ID超过该数量时不再展开为 in (?, ?, ...)，改为以一个 JSON 数组参数通过 JSON_TABLE 关联，
+     * SQL 文本长度保持不变，需要 MySQL 8 或 MariaDB 10.6 以上，0 表示不启用
+     */
+    private int compactThreshold = 200;
+}
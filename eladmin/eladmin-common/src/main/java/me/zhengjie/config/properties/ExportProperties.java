@@ -0,0 +1,46 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 异步导出配置
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "export")
+public class ExportProperties {
+
+    /** 同时执行的导出任务数，每个任务占用一个数据库连接，不宜过大 */
+    private int concurrency = 2;
+
+    /** 排队的任务数，超出后拒绝提交 */
+    private int queueCapacity = 10;
+
+    /** 每个用户未完成的任务数 */
+    private int userLimit = 2;
+
+    /** 每写出 N 行更新一次进度 */
+    private int progressInterval = 10000;
+
+    /** 任务与导出文件的保留时间/小时 */
+    private int expireHours = 24;
+}
@@ -34,6 +34,12 @@ public class FileProperties {
     /** 头像大小限制 */
     private Long avatarMaxSize;
 
+    /** 浏览器缓存时间/秒，上传的文件名带有时间戳，内容不会变化 */
+    private long cacheMaxAge = 7 * 24 * 3600;
+
+    /** 按内容存储本地文件与头像，内容相同的文件只保存一份，需先执行 sql/tool_file_blob.sql */
+    private boolean dedup = false;
+
     private ElPath mac;
 
     private ElPath linux;
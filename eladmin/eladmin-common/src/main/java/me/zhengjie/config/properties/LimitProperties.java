@@ -0,0 +1,52 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 接口限流配置
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "limit")
+public class LimitProperties {
+
+    /**
+     * 限流模式
+     * redis：每次访问都经过 Redis，集群共享计数
+     * local：本地内存计数，适合单节点部署
+     * hybrid：从 Redis 批量租用许可，在本地消费
+     */
+    private Mode mode = Mode.REDIS;
+
+    /** hybrid 模式单次租用的许可数量，实际不超过 count 的十分之一 */
+    private int leaseSize = 10;
+
+    /** hybrid 模式租用许可的有效期/毫秒，过期未用完的许可作废 */
+    private long leaseTtl = 1000;
+
+    /** local 与 hybrid 模式本地最多保存的 key 数量 */
+    private long maxKeys = 100000;
+
+    public enum Mode {
+        REDIS, LOCAL, HYBRID
+    }
+}
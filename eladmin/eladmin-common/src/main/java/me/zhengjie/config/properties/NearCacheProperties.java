@@ -0,0 +1,55 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 本地缓存(L1)配置，Redis 为二级缓存(L2)
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "near-cache")
+public class NearCacheProperties {
+
+    /** 是否开启本地缓存 */
+    private boolean enabled = true;
+
+    /** 集群间失效通知的 Redis 频道 */
+    private String channel = "near-cache:invalidate";
+
+    /** 需要本地缓存的 key 前缀，对应 CacheKey 中的常量 */
+    private List<Spec> caches = new ArrayList<>();
+
+    @Data
+    public static class Spec {
+
+        /** key 前缀 */
+        private String prefix;
+
+        /** 最大缓存数量 */
+        private long maxSize = 1000;
+
+        /** 缓存时间/秒 */
+        private long ttl = 60;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Redis 缓存值序列化配置
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "redis-serializer")
+public class RedisSerializerProperties {
+
+    /**
+     * 序列化格式，读取时两种格式都支持
+     * json：与旧版本一致的 JSON 文本，滚动升级期间使用
+     * jsonb：fastjson2 二进制格式，体积更小，解析更快
+     */
+    private Format format = Format.JSON;
+
+    /** 超过该大小(字节)的数据使用 LZ4 压缩，小于等于 0 时不压缩，仅 jsonb 格式生效 */
+    private int compressThreshold = 4096;
+
+    public enum Format {
+        JSON, JSONB
+    }
+}
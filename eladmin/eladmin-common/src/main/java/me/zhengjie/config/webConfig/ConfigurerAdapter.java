@@ -21,6 +21,7 @@ import com.alibaba.fastjson2.support.spring.http.converter.FastJsonHttpMessageCo
 import me.zhengjie.config.properties.FileProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
@@ -33,6 +34,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WebMvcConfigurer
@@ -68,8 +70,10 @@ public class ConfigurerAdapter implements WebMvcConfigurer {
         FileProperties.ElPath path = properties.getPath();
         String avatarUtl = "file:" + path.getAvatar().replace("\\","/");
         String pathUtl = "file:" + path.getPath().replace("\\","/");
-        registry.addResourceHandler("/avatar/**").addResourceLocations(avatarUtl).setCachePeriod(0);
-        registry.addResourceHandler("/file/**").addResourceLocations(pathUtl).setCachePeriod(0);
+        // 上传的文件名带有时间戳，内容不会变化，由浏览器缓存，过期后通过 Last-Modified 验证
+        CacheControl cacheControl = CacheControl.maxAge(properties.getCacheMaxAge(), TimeUnit.SECONDS).cachePublic();
+        registry.addResourceHandler("/avatar/**").addResourceLocations(avatarUtl).setCacheControl(cacheControl);
+        registry.addResourceHandler("/file/**").addResourceLocations(pathUtl).setCacheControl(cacheControl);
         registry.addResourceHandler("/**").addResourceLocations("classpath:/META-INF/resources/").setCachePeriod(0);
     }
 
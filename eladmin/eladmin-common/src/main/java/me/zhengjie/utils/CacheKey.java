@@ -27,16 +27,12 @@ public interface CacheKey {
      */
     String USER_ID = "user::id:";
 
-    /**
-     * 数据
-     */
-    String DATA_USER = "data::user:";
-
     /**
      * 菜单
      */
     String MENU_ID = "menu::id:";
     String MENU_USER = "menu::user:";
+    String MENU_TREE_VERSION = "menu::tree:version";
 
     /**
      * 角色授权
@@ -53,6 +49,7 @@ public interface CacheKey {
      * 部门
      */
     String DEPT_ID = "dept::id:";
+    String DEPT_TREE_VERSION = "dept::tree:version";
 
     /**
      * 岗位
@@ -63,4 +60,14 @@ public interface CacheKey {
      * 数据字典
      */
     String DICT_NAME = "dict::name:";
+
+    /**
+     * 导出任务
+     */
+    String EXPORT_JOB = "export::job:";
+
+    /**
+     * 日志分区维护锁
+     */
+    String SYS_LOG_PARTITION_LOCK = "sys-log::partition:lock";
 }
@@ -0,0 +1,102 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 当前用户的数据权限，不可变
+ * 部门ID排序去重后保存在 long 数组中，为空表示不限制
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public final class DataScope {
+
+    /**
+     * 请求属性名称
+     */
+    public static final String ATTRIBUTE = DataScope.class.getName();
+
+    private static final long[] EMPTY = new long[0];
+
+    private final long[] deptIds;
+
+    private DataScope(long[] deptIds) {
+        this.deptIds = deptIds;
+    }
+
+    public static DataScope of(Collection<? extends Number> deptIds) {
+        if (deptIds == null || deptIds.isEmpty()) {
+            return new DataScope(EMPTY);
+        }
+        long[] ids = deptIds.stream().mapToLong(Number::longValue).sorted().distinct().toArray();
+        return new DataScope(ids);
+    }
+
+    /**
+     * 是否为空，即不限制部门
+     * @return /
+     */
+    public boolean isEmpty() {
+        return deptIds.length == 0;
+    }
+
+    public int size() {
+        return deptIds.length;
+    }
+
+    /**
+     * 是否可以访问该部门的数据
+     * @param deptId 部门ID
+     * @return /
+     */
+    public boolean contains(long deptId) {
+        return isEmpty() || Arrays.binarySearch(deptIds, deptId) >= 0;
+    }
+
+    /**
+     * @return 部门ID的副本
+     */
+    public long[] toArray() {
+        return deptIds.clone();
+    }
+
+    /**
+     * @return 新的集合，调用方可以修改
+     */
+    public List<Long> toList() {
+        List<Long> list = new ArrayList<>(deptIds.length);
+        for (long deptId : deptIds) {
+            list.add(deptId);
+        }
+        return list;
+    }
+
+    /**
+     * 由登录用户(UserDetails)实现，直接提供数据权限，避免序列化整个对象
+     */
+    public interface Provider {
+
+        /**
+         * 获取数据权限
+         * @return 部门ID，为空表示不限制
+         */
+        List<Long> getDataScopes();
+    }
+}
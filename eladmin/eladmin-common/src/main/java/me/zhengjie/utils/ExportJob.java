@@ -0,0 +1,83 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.utils;
+
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 异步导出任务
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Data
+public class ExportJob implements Serializable {
+
+    @ApiModelProperty(value = "任务ID")
+    private String id;
+
+    @ApiModelProperty(value = "提交人")
+    private String username;
+
+    @ApiModelProperty(value = "名称")
+    private String name;
+
+    @ApiModelProperty(value = "格式：xlsx、csv")
+    private String format;
+
+    @ApiModelProperty(value = "状态")
+    private Status status;
+
+    @ApiModelProperty(value = "已写出的行数")
+    private long rows;
+
+    @ApiModelProperty(value = "文件大小/字节")
+    private long size;
+
+    @ApiModelProperty(value = "失败原因")
+    private String message;
+
+    @ApiModelProperty(value = "创建时间")
+    private Timestamp createTime;
+
+    @ApiModelProperty(value = "完成时间")
+    private Timestamp finishTime;
+
+    /**
+     * 下载时的文件名
+     * @return /
+     */
+    public String getFileName() {
+        return name + "-" + id + "." + format;
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCESS || status == Status.FAILED;
+    }
+
+    public enum Status {
+        // 排队中
+        WAITING,
+        // 导出中
+        RUNNING,
+        // 已完成
+        SUCCESS,
+        // 失败
+        FAILED
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.utils;
+
+import cn.hutool.core.util.IdUtil;
+import lombok.extern.slf4j.Slf4j;
+import me.zhengjie.base.MetricsProvider;
+import me.zhengjie.config.properties.ExportProperties;
+import me.zhengjie.exception.BadRequestException;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 异步导出任务管理
+ * 提交后立即返回任务ID，由独立线程池按游标读取数据并写入本地文件，完成后再下载，不占用 Tomcat 线程
+ * 线程池大小即同时占用的数据库连接数，队列已满或用户未完成的任务过多时拒绝提交
+ * 任务状态保存在 Redis 中，导出文件保存在执行任务的节点上
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Slf4j
+@Component
+public class ExportJobManager implements MetricsProvider {
+
+    /** 不放在 file.path 下，避免通过 /file/** 匿名访问 */
+    private static final String DIR = FileUtil.SYS_TEM_DIR + "eladmin-export";
+    private static final String TEMP_SUFFIX = ".tmp";
+    /** 文件写入缓冲区 */
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final ExportProperties properties;
+    private final RedisUtils redisUtils;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    /** 本节点上每个用户未完成的任务数，检查与增减都在 compute 中完成 */
+    private final Map<String, Integer> userJobs = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public ExportJobManager(ExportProperties properties, RedisUtils redisUtils, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.redisUtils = redisUtils;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 游标需要在事务内读取
+        this.transactionTemplate.setReadOnly(true);
+        AtomicInteger index = new AtomicInteger(1);
+        ThreadFactory factory = r -> {
+            Thread thread = new Thread(r, "el-export-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(properties.getConcurrency(), properties.getConcurrency(), 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), factory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 提交导出任务，查询条件需要在调用前确定，任务线程中没有登录信息
+     * @param name 名称
+     * @param sheet 列定义
+     * @param format 格式
+     * @param query 打开游标，在任务线程的只读事务中调用
+     * @return 任务
+     */
+    public <T> ExportJob submit(String name, ExportSheet<T> sheet, ExportSheet.Format format, Supplier<Cursor<T>> query) {
+        String username = SecurityUtils.getCurrentUsername();
+        boolean[] accepted = new boolean[1];
+        userJobs.compute(username, (k, count) -> {
+            int running = count == null ? 0 : count;
+            accepted[0] = running < properties.getUserLimit();
+            return accepted[0] ? running + 1 : count;
+        });
+        if (!accepted[0]) {
+            rejected.incrementAndGet();
+            throw new BadRequestException("您有未完成的导出任务，请稍后再试");
+        }
+        ExportJob job = new ExportJob();
+        job.setId(IdUtil.fastSimpleUUID());
+        job.setUsername(username);
+        job.setName(name);
+        job.setFormat(format.getExtension());
+        job.setStatus(ExportJob.Status.WAITING);
+        job.setCreateTime(new Timestamp(System.currentTimeMillis()));
+        save(job);
+        try {
+            executor.execute(() -> run(job, sheet, format, query));
+        } catch (RejectedExecutionException e) {
+            release(username);
+            rejected.incrementAndGet();
+            redisUtils.del(CacheKey.EXPORT_JOB + job.getId());
+            throw new BadRequestException("导出任务过多，请稍后再试");
+        }
+        submitted.incrementAndGet();
+        return job;
+    }
+
+    /**
+     * 查询当前用户的任务
+     * @param id 任务ID
+     * @return /
+     */
+    public ExportJob get(String id) {
+        ExportJob job = redisUtils.get(CacheKey.EXPORT_JOB + id, ExportJob.class);
+        if (job == null || !job.getUsername().equals(SecurityUtils.getCurrentUsername())) {
+            throw new BadRequestException("导出任务不存在或已过期");
+        }
+        return job;
+    }
+
+    /**
+     * 获取已完成任务的文件
+     * @param job 任务
+     * @return /
+     */
+    public File getFile(ExportJob job) {
+        if (job.getStatus() != ExportJob.Status.SUCCESS) {
+            throw new BadRequestException("导出任务尚未完成");
+        }
+        File file = new File(getDir(), job.getId() + "." + job.getFormat());
+        if (!file.isFile()) {
+            throw new BadRequestException("导出文件不存在，可能已过期或不在当前节点");
+        }
+        return file;
+    }
+
+    private <T> void run(ExportJob job, ExportSheet<T> sheet, ExportSheet.Format format, Supplier<Cursor<T>> query) {
+        File dir = getDir();
+        File temp = new File(dir, job.getId() + "." + job.getFormat() + TEMP_SUFFIX);
+        try {
+            job.setStatus(ExportJob.Status.RUNNING);
+            save(job);
+            cleanExpired(dir);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp.toPath()), BUFFER_SIZE)) {
+                Long rows = transactionTemplate.execute(status -> {
+                    try (Cursor<T> cursor = query.get()) {
+                        return sheet.write(progress(cursor, job), format, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                job.setRows(rows == null ? 0 : rows);
+            }
+            File file = new File(dir, job.getId() + "." + job.getFormat());
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            job.setSize(file.length());
+            job.setStatus(ExportJob.Status.SUCCESS);
+            succeeded.incrementAndGet();
+        } catch (Exception e) {
+            log.error("Export job {} failed: {}", job.getId(), e.getMessage(), e);
+            FileUtil.del(temp);
+            job.setStatus(ExportJob.Status.FAILED);
+            job.setMessage(e.getMessage());
+            failed.incrementAndGet();
+        } finally {
+            job.setFinishTime(new Timestamp(System.currentTimeMillis()));
+            save(job);
+            release(job.getUsername());
+        }
+    }
+
+    /**
+     * 遍历时按间隔更新进度
+     */
+    private <T> Iterable<T> progress(Iterable<T> rows, ExportJob job) {
+        int interval = Math.max(properties.getProgressInterval(), 1);
+        return () -> {
+            Iterator<T> iterator = rows.iterator();
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    T next = iterator.next();
+                    job.setRows(job.getRows() + 1);
+                    if (job.getRows() % interval == 0) {
+                        save(job);
+                    }
+                    return next;
+                }
+            };
+        };
+    }
+
+    private void save(ExportJob job) {
+        redisUtils.set(CacheKey.EXPORT_JOB + job.getId(), job, properties.getExpireHours(), TimeUnit.HOURS);
+    }
+
+    private void release(String username) {
+        userJobs.computeIfPresent(username, (k, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private File getDir() {
+        File dir = new File(DIR);
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new BadRequestException("无法创建导出目录");
+        }
+        return dir;
+    }
+
+    /**
+     * 删除超过保留时间的导出文件
+     */
+    private void cleanExpired(File dir) {
+        long expireTime = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(properties.getExpireHours());
+        File[] files = dir.listFiles(file -> file.isFile() && file.lastModified() < expireTime);
+        if (files != null) {
+            for (File file : files) {
+                FileUtil.del(file);
+            }
+        }
+    }
+
+    /**
+     * 应用关闭时不再接收新任务，并中断正在执行的任务
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "exportJob";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(7);
+        metrics.put("concurrency", properties.getConcurrency());
+        metrics.put("running", executor.getActiveCount());
+        metrics.put("queued", executor.getQueue().size());
+        metrics.put("submitted", submitted.get());
+        metrics.put("rejected", rejected.get());
+        metrics.put("succeeded", succeeded.get());
+        metrics.put("failed", failed.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.utils;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.date.DateUtil;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 流式导出，逐行写出 xlsx(SXSSF) 或 csv 到输出流，内存占用与总行数无关
+ * xlsx 内存中只保留最近 WINDOW 行，使用固定列宽，不再计算自适应列宽；单个工作表写满后自动新建工作表
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public final class ExportSheet<T> {
+
+    /** SXSSF 内存中保留的行数 */
+    private static final int WINDOW = 200;
+    /** 列宽/字符 */
+    private static final int COLUMN_WIDTH = 20;
+    /** 单元格最大字符数 */
+    private static final int MAX_CELL_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+    /** 单个工作表最多的数据行数，首行为标题 */
+    private static final int MAX_SHEET_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+    private static final String DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private final List<String> titles = new ArrayList<>();
+    private final List<Function<T, Object>> getters = new ArrayList<>();
+
+    public enum Format {
+        XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet;charset=utf-8"),
+        CSV("csv", "text/csv;charset=utf-8");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * 根据请求参数获取格式，无法识别时使用 xlsx
+         * @param value /
+         * @return /
+         */
+        public static Format of(String value) {
+            return CSV.extension.equalsIgnoreCase(value) ? CSV : XLSX;
+        }
+    }
+
+    public static <T> ExportSheet<T> create() {
+        return new ExportSheet<>();
+    }
+
+    /**
+     * 添加一列
+     * @param title 标题
+     * @param getter 取值
+     * @return this
+     */
+    public ExportSheet<T> column(String title, Function<T, Object> getter) {
+        titles.add(title);
+        getters.add(getter);
+        return this;
+    }
+
+    /**
+     * 写出全部数据，不会关闭输出流
+     * @param rows 数据，可以是 MyBatis Cursor 等只能遍历一次的对象
+     * @param format 格式
+     * @param out 输出流
+     * @return 写出的数据行数
+     * @throws IOException /
+     */
+    public long write(Iterable<T> rows, Format format, OutputStream out) throws IOException {
+        return format == Format.CSV ? writeCsv(rows, out) : writeXlsx(rows, out);
+    }
+
+    private long writeXlsx(Iterable<T> rows, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = newSheet(workbook);
+            int rowIndex = 1;
+            long count = 0;
+            for (T item : rows) {
+                if (rowIndex > MAX_SHEET_ROWS) {
+                    sheet = newSheet(workbook);
+                    rowIndex = 1;
+                }
+                Row row = sheet.createRow(rowIndex++);
+                for (int i = 0; i < getters.size(); i++) {
+                    setCell(row.createCell(i), getters.get(i).apply(item));
+                }
+                count++;
+            }
+            workbook.write(out);
+            out.flush();
+            return count;
+        } finally {
+            // 删除 SXSSF 的临时文件
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private Sheet newSheet(SXSSFWorkbook workbook) {
+        Sheet sheet = workbook.createSheet();
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < titles.size(); i++) {
+            sheet.setColumnWidth(i, COLUMN_WIDTH * 256);
+            header.createCell(i).setCellValue(titles.get(i));
+        }
+        return sheet;
+    }
+
+    private static void setCell(Cell cell, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else {
+            String text = toText(value);
+            cell.setCellValue(text.length() > MAX_CELL_LENGTH ? text.substring(0, MAX_CELL_LENGTH) : text);
+        }
+    }
+
+    private long writeCsv(Iterable<T> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        // BOM，Excel 打开时识别为 UTF-8
+        writer.write('\uFEFF');
+        writeCsvLine(writer, new ArrayList<>(titles));
+        long count = 0;
+        List<Object> values = new ArrayList<>(getters.size());
+        for (T item : rows) {
+            values.clear();
+            for (Function<T, Object> getter : getters) {
+                values.add(getter.apply(item));
+            }
+            writeCsvLine(writer, values);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            String text = value instanceof Number || value instanceof Boolean ? value.toString() : sanitize(toText(value));
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String toText(Object value) {
+        if (value instanceof Date) {
+            return DateUtil.format((Date) value, DATE_PATTERN);
+        }
+        if (value instanceof Collection) {
+            return CollUtil.join((Collection<?>) value, ",");
+        }
+        return value.toString();
+    }
+
+    /**
+     * 防止 CSV 注入，以公式字符开头的值添加单引号前缀
+     * xlsx 的字符串单元格不会被当作公式，不需要处理，否则单引号会显示在单元格中
+     */
+    private static String sanitize(String value) {
+        if (value.startsWith("=") || value.startsWith("+") || value.startsWith("-") || value.startsWith("@")) {
+            return "'" + value;
+        }
+        return value;
+    }
+}
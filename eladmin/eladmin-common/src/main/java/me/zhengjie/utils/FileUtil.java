@@ -16,24 +16,28 @@
 package me.zhengjie.utils;
 
 import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.util.HexUtil;
 import cn.hutool.core.util.IdUtil;
-import cn.hutool.poi.excel.BigExcelWriter;
-import cn.hutool.poi.excel.ExcelUtil;
 import lombok.extern.slf4j.Slf4j;
 import me.zhengjie.exception.BadRequestException;
-import org.apache.poi.util.IOUtils;
-import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.springframework.web.multipart.MultipartFile;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.*;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * File工具类，扩展 hutool 工具包
@@ -69,6 +73,17 @@ public class FileUtil extends cn.hutool.core.io.FileUtil {
      * 定义KB的计算常量
      */
     private static final int KB = 1024;
+    /**
+     * 小于该大小时不使用 sendfile，与 Tomcat 默认的 sendfileSize 一致
+     */
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+    /**
+     * 读写文件时的缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static final String MD5 = "MD5";
+    public static final String SHA256 = "SHA-256";
 
     /**
      * 格式化小数
@@ -178,23 +193,8 @@ public class FileUtil extends cn.hutool.core.io.FileUtil {
      * 将文件名解析成文件的上传路径
      */
     public static File upload(MultipartFile file, String filePath) {
-        Date date = new Date();
-        SimpleDateFormat format = new SimpleDateFormat("yyyyMMddhhmmssS");
-        // 过滤非法文件名
-        String name = getFileNameNoEx(verifyFilename(file.getOriginalFilename()));
-        String suffix = getExtensionName(file.getOriginalFilename());
-        String nowStr = "-" + format.format(date);
         try {
-            String fileName = name + nowStr + "." + suffix;
-            String path = filePath + fileName;
-            // getCanonicalFile 可解析正确各种路径
-            File dest = new File(path).getCanonicalFile();
-            // 检测是否存在目录
-            if (!dest.getParentFile().exists()) {
-                if (!dest.getParentFile().mkdirs()) {
-                    System.out.println("was not successful.");
-                }
-            }
+            File dest = newUploadFile(file, filePath);
             // 文件写入
             file.transferTo(dest);
             return dest;
@@ -205,44 +205,88 @@ public class FileUtil extends cn.hutool.core.io.FileUtil {
     }
 
     /**
-     * 导出excel
+     * 上传文件，使用直接缓冲区逐块写入磁盘，写入的同时计算摘要，不需要再次读取文件
+     * @param file 上传的文件
+     * @param filePath 存储目录
+     * @param digest 摘要，写入完成后通过 digest.digest() 获取结果
+     * @return 上传后的文件，失败时返回 null
      */
-    public static void downloadExcel(List<Map<String, Object>> list, HttpServletResponse response) throws IOException {
-        String tempPath = SYS_TEM_DIR + IdUtil.fastSimpleUUID() + ".xlsx";
-        File file = new File(tempPath);
-        BigExcelWriter writer = ExcelUtil.getBigWriter(file);
-        // 处理数据以防止CSV注入
-        List<Map<String, Object>> sanitizedList = list.parallelStream().map(map -> {
-            Map<String, Object> sanitizedMap = new LinkedHashMap<>();
-            map.forEach((key, value) -> {
-                if (value instanceof String) {
-                    String strValue = (String) value;
-                    // 检查并处理以特殊字符开头的值
-                    if (strValue.startsWith("=") || strValue.startsWith("+") || strValue.startsWith("-") || strValue.startsWith("@")) {
-                        strValue = "'" + strValue; // 添加单引号前缀
+    public static File upload(MultipartFile file, String filePath, MessageDigest digest) {
+        File dest = null;
+        try {
+            dest = newUploadFile(file, filePath);
+            try (ReadableByteChannel in = Channels.newChannel(file.getInputStream());
+                 FileChannel out = FileChannel.open(dest.toPath(), StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (in.read(buffer) >= 0) {
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
                     }
-                    sanitizedMap.put(key, strValue);
-                } else {
-                    sanitizedMap.put(key, value);
+                    buffer.clear();
                 }
-            });
-            return sanitizedMap;
-        }).collect(Collectors.toList());
-        // 一次性写出内容，使用默认样式，强制输出标题
-        writer.write(sanitizedList, true);
-        SXSSFSheet sheet = (SXSSFSheet)writer.getSheet();
-        //上面需要强转SXSSFSheet  不然没有trackAllColumnsForAutoSizing方法
-        sheet.trackAllColumnsForAutoSizing();
-        //列宽自适应
-        writer.autoSizeColumnAll();
-        //response为HttpServletResponse对象
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet;charset=utf-8");
-        //test.xls是弹出下载对话框的文件名，不能为中文，中文请自行编码
-        response.setHeader("Content-Disposition", "attachment;filename=file.xlsx");
+            }
+            return dest;
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            if (dest != null) {
+                del(dest);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 生成带时间戳的文件名并创建目录
+     */
+    private static File newUploadFile(MultipartFile file, String filePath) throws IOException {
+        Date date = new Date();
+        SimpleDateFormat format = new SimpleDateFormat("yyyyMMddhhmmssS");
+        // 过滤非法文件名
+        String name = getFileNameNoEx(verifyFilename(file.getOriginalFilename()));
+        String suffix = getExtensionName(file.getOriginalFilename());
+        String nowStr = "-" + format.format(date);
+        String fileName = name + nowStr + "." + suffix;
+        String path = filePath + fileName;
+        // getCanonicalFile 可解析正确各种路径
+        File dest = new File(path).getCanonicalFile();
+        // 检测是否存在目录
+        File dir = dest.getParentFile();
+        // 并发上传时目录可能已由其他请求创建
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new BadRequestException("创建目录失败: " + dir.getPath());
+        }
+        return dest;
+    }
+
+    /**
+     * 导出excel
+     */
+    public static void downloadExcel(List<Map<String, Object>> list, HttpServletResponse response) throws IOException {
+        ExportSheet<Map<String, Object>> sheet = ExportSheet.create();
+        if (!list.isEmpty()) {
+            for (String title : list.get(0).keySet()) {
+                sheet.column(title, map -> map.get(title));
+            }
+        }
+        download(list, sheet, ExportSheet.Format.XLSX, response);
+    }
+
+    /**
+     * 流式导出，数据逐行直接写入响应流
+     * @param rows 数据，可以是 MyBatis Cursor
+     * @param sheet 列定义
+     * @param format 格式
+     * @param response /
+     * @throws IOException /
+     */
+    public static <T> void download(Iterable<T> rows, ExportSheet<T> sheet, ExportSheet.Format format, HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setHeader("Content-Disposition", "attachment;filename=file." + format.getExtension());
         ServletOutputStream out = response.getOutputStream();
-        // 终止后删除临时文件
-        file.deleteOnExit();
-        writer.flush(out, true);
+        sheet.write(rows, format, out);
         //此处记得关闭输出Servlet流
         IoUtil.close(out);
     }
@@ -292,48 +336,6 @@ public class FileUtil extends cn.hutool.core.io.FileUtil {
         return file1Md5.equals(file2Md5);
     }
 
-    private static byte[] getByte(File file) {
-        // 得到文件长度
-        byte[] b = new byte[(int) file.length()];
-        InputStream in = null;
-        try {
-            in = Files.newInputStream(file.toPath());
-            try {
-                System.out.println(in.read(b));
-            } catch (IOException e) {
-                log.error(e.getMessage(), e);
-            }
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
-            return null;
-        } finally {
-            CloseUtil.close(in);
-        }
-        return b;
-    }
-
-    private static String getMd5(byte[] bytes) {
-        // 16进制字符
-        char[] hexDigits = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
-        try {
-            MessageDigest mdTemp = MessageDigest.getInstance("MD5");
-            mdTemp.update(bytes);
-            byte[] md = mdTemp.digest();
-            int j = md.length;
-            char[] str = new char[j * 2];
-            int k = 0;
-            // 移位 输出字符串
-            for (byte byte0 : md) {
-                str[k++] = hexDigits[byte0 >>> 4 & 0xf];
-                str[k++] = hexDigits[byte0 & 0xf];
-            }
-            return new String(str);
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
-        }
-        return null;
-    }
-
     /**
      * 下载文件
      *
@@ -343,27 +345,148 @@ public class FileUtil extends cn.hutool.core.io.FileUtil {
      */
     public static void downloadFile(HttpServletRequest request, HttpServletResponse response, File file, boolean deleteOnExit) {
         response.setCharacterEncoding(request.getCharacterEncoding());
-        response.setContentType("application/octet-stream");
-        FileInputStream fis = null;
         try {
-            fis = new FileInputStream(file);
-            response.setHeader("Content-Disposition", "attachment; filename=" + file.getName());
-            IOUtils.copy(fis, response.getOutputStream());
-            response.flushBuffer();
+            downloadRange(request, response, file, file.getName(), "application/octet-stream", null, 0);
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         } finally {
-            if (fis != null) {
-                try {
-                    fis.close();
-                    if (deleteOnExit) {
-                        file.deleteOnExit();
+            // sendfile 在请求返回后才读取文件，只能在退出时删除
+            if (deleteOnExit) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * 下载文件，支持断点续传
+     * @param request /
+     * @param response /
+     * @param file 文件
+     * @param fileName 下载时的文件名
+     * @param contentType 文件类型
+     * @throws IOException /
+     */
+    public static void downloadRange(HttpServletRequest request, HttpServletResponse response, File file,
+                                     String fileName, String contentType) throws IOException {
+        downloadRange(request, response, file, fileName, contentType, null, 0);
+    }
+
+    /**
+     * 下载文件，支持单个 Range 请求与 If-None-Match、If-Range 条件请求
+     * Tomcat 支持 sendfile 时由容器直接发送文件，否则使用 FileChannel.transferTo，数据不经过堆内存
+     * @param request /
+     * @param response /
+     * @param file 文件
+     * @param fileName 下载时的文件名
+     * @param contentType 文件类型，为空时根据文件名判断
+     * @param digest 文件内容的摘要，作为 ETag，为空时使用文件大小与修改时间
+     * @param maxAge 浏览器缓存时间/秒，0 表示每次使用前都需要验证
+     * @throws IOException /
+     */
+    public static void downloadRange(HttpServletRequest request, HttpServletResponse response, File file,
+                                     String fileName, String contentType, String digest, long maxAge) throws IOException {
+        long length = file.length();
+        long lastModified = file.lastModified() / 1000 * 1000;
+        String etag = "\"" + (StringUtils.isBlank(digest) ? Long.toHexString(lastModified) + "-" + Long.toHexString(length) : digest) + "\"";
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", maxAge > 0 ? "private, max-age=" + maxAge : "private, no-cache");
+        response.setHeader("Accept-Ranges", "bytes");
+        if (matchesEtag(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long start = 0, end = length - 1;
+        String range = request.getHeader("Range");
+        // 多段 Range 与 If-Range 不匹配(文件已变化)时返回完整内容
+        if (range != null && range.startsWith("bytes=") && range.indexOf(',') < 0 && matchesIfRange(request, etag, lastModified)) {
+            try {
+                String[] parts = range.substring(6).trim().split("-", 2);
+                if (parts.length != 2) {
+                    // 缺少 "-"，如 bytes=100
+                    start = -1;
+                } else if (parts[0].isEmpty()) {
+                    // bytes=-N 表示最后 N 个字节
+                    start = Math.max(length - Long.parseLong(parts[1]), 0);
+                } else {
+                    start = Long.parseLong(parts[0]);
+                    if (!parts[1].isEmpty()) {
+                        end = Math.min(Long.parseLong(parts[1]), length - 1);
                     }
-                } catch (IOException e) {
-                    log.error(e.getMessage(), e);
                 }
+            } catch (NumberFormatException e) {
+                start = -1;
+            }
+            if (start < 0 || start > end) {
+                response.setHeader("Content-Range", "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        }
+        if (StringUtils.isBlank(contentType)) {
+            contentType = request.getServletContext().getMimeType(fileName);
+        }
+        response.setContentType(contentType == null ? "application/octet-stream" : contentType);
+        response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + URLEncoder.encode(fileName, "UTF-8").replace("+", "%20"));
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count <= 0 || "HEAD".equalsIgnoreCase(request.getMethod())) {
+            return;
+        }
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.getCanonicalPath());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (count > 0) {
+                long sent = channel.transferTo(start, count, out);
+                if (sent <= 0) {
+                    break;
+                }
+                start += sent;
+                count -= sent;
+            }
+            response.flushBuffer();
+        }
+    }
+
+    /**
+     * If-None-Match 使用弱比较，忽略 W/ 前缀
+     */
+    private static boolean matchesEtag(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if ("*".equals(tag) || etag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                return true;
             }
         }
+        return false;
+    }
+
+    /**
+     * If-Range 可以是 ETag 或修改时间，与当前文件一致时 Range 才有效
+     */
+    private static boolean matchesIfRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader("If-Range");
+        if (header == null) {
+            return true;
+        }
+        if (header.startsWith("\"") || header.startsWith("W/")) {
+            return etag.equals(header);
+        }
+        try {
+            return request.getDateHeader("If-Range") == lastModified;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
     }
 
     /**
@@ -404,6 +527,41 @@ public class FileUtil extends cn.hutool.core.io.FileUtil {
     }
 
     public static String getMd5(File file) {
-        return getMd5(getByte(file));
+        return getDigest(file, MD5);
+    }
+
+    /**
+     * 计算文件摘要，按块读取，不会将整个文件读入内存
+     * @param file 文件
+     * @param algorithm 算法，如 MD5、SHA-256
+     * @return 十六进制摘要，读取失败时返回 null
+     */
+    public static String getDigest(File file, String algorithm) {
+        MessageDigest digest = newDigest(algorithm);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return HexUtil.encodeHexStr(digest.digest());
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 创建摘要算法实例
+     * @param algorithm 算法，如 MD5、SHA-256
+     * @return /
+     */
+    public static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e);
+        }
     }
 }
@@ -0,0 +1,196 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.utils;
+
+import cn.hutool.core.util.IdUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import me.zhengjie.base.MetricsProvider;
+import me.zhengjie.config.properties.NearCacheProperties;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地缓存(L1)，位于 RedisUtils(L2) 之前，只缓存 near-cache.caches 中配置的 key 前缀
+ * 缓存删除时通过 Redis 发布订阅通知集群中其他节点失效本地缓存，同时依靠较短的过期时间兜底
+ * 注意：本地缓存返回的是同一个对象，调用方不能修改返回的数据
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Slf4j
+@Component
+public class NearCache implements MessageListener, MetricsProvider {
+
+    private static final String SEPARATOR = "\n";
+
+    /** 当前节点编号，忽略自己发出的失效通知 */
+    private final String nodeId = IdUtil.simpleUUID();
+    private final byte[] channel;
+    private final RedisTemplate<Object, Object> redisTemplate;
+    private final Map<String, Cache<String, Object>> caches = new LinkedHashMap<>();
+    /** 本地缓存时间/毫秒 */
+    private final Map<String, Long> ttls = new HashMap<>();
+
+    public NearCache(NearCacheProperties properties, RedisTemplate<Object, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.channel = properties.getChannel().getBytes(StandardCharsets.UTF_8);
+        if (properties.isEnabled()) {
+            for (NearCacheProperties.Spec spec : properties.getCaches()) {
+                caches.put(spec.getPrefix(), Caffeine.newBuilder()
+                        .maximumSize(spec.getMaxSize())
+                        .expireAfterWrite(spec.getTtl(), TimeUnit.SECONDS)
+                        .recordStats()
+                        .build());
+                ttls.put(spec.getPrefix(), TimeUnit.SECONDS.toMillis(spec.getTtl()));
+            }
+        }
+    }
+
+    /**
+     * 获取本地缓存
+     * @param key 键
+     * @return 值，未配置本地缓存或不存在时返回 null
+     */
+    public Object get(String key) {
+        Cache<String, Object> cache = find(key);
+        return cache == null ? null : cache.getIfPresent(key);
+    }
+
+    /**
+     * 放入本地缓存，未配置本地缓存的 key 直接忽略
+     * @param key 键
+     * @param value 值
+     */
+    public void put(String key, Object value) {
+        Cache<String, Object> cache = find(key);
+        if (cache != null && value != null) {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * 放入本地缓存，Redis 中的过期时间短于本地缓存时间时不放入，并移除旧值，避免 Redis 过期后仍读到本地缓存
+     * @param key 键
+     * @param value 值
+     * @param time Redis 中的过期时间
+     * @param unit 时间单位
+     */
+    public void put(String key, Object value, long time, TimeUnit unit) {
+        String prefix = findPrefix(key);
+        if (prefix == null) {
+            return;
+        }
+        if (unit.toMillis(time) < ttls.get(prefix)) {
+            caches.get(prefix).invalidate(key);
+        } else {
+            put(key, value);
+        }
+    }
+
+    /**
+     * 只失效当前节点的本地缓存
+     * @param keys 键
+     */
+    public void evictLocal(Collection<String> keys) {
+        if (caches.isEmpty()) {
+            return;
+        }
+        for (String key : keys) {
+            Cache<String, Object> cache = find(key);
+            if (cache != null) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * 失效本地缓存，并通知集群中的其他节点
+     * @param keys 键
+     */
+    public void evict(Collection<String> keys) {
+        List<String> nearKeys = new ArrayList<>();
+        for (String key : keys) {
+            if (find(key) != null) {
+                nearKeys.add(key);
+            }
+        }
+        if (nearKeys.isEmpty()) {
+            return;
+        }
+        evictLocal(nearKeys);
+        byte[] message = (nodeId + SEPARATOR + String.join(SEPARATOR, nearKeys)).getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+        } catch (Exception e) {
+            log.error("Near cache invalidation publish failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARATOR);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        evictLocal(Arrays.asList(parts).subList(1, parts.length));
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "nearCache";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(caches.size());
+        caches.forEach((prefix, cache) -> {
+            CacheStats stats = cache.stats();
+            Map<String, Object> item = new LinkedHashMap<>(5);
+            item.put("size", cache.estimatedSize());
+            item.put("hit", stats.hitCount());
+            item.put("miss", stats.missCount());
+            item.put("eviction", stats.evictionCount());
+            item.put("hitRate", stats.hitRate());
+            metrics.put(prefix, item);
+        });
+        return metrics;
+    }
+
+    private Cache<String, Object> find(String key) {
+        String prefix = findPrefix(key);
+        return prefix == null ? null : caches.get(prefix);
+    }
+
+    private String findPrefix(String key) {
+        if (key == null || caches.isEmpty()) {
+            return null;
+        }
+        for (String prefix : caches.keySet()) {
+            if (key.startsWith(prefix)) {
+                return prefix;
+            }
+        }
+        return null;
+    }
+}
@@ -17,5 +17,18 @@ public class PageResult<T> implements Serializable {
 
     private List<T> content;
 
+    /**
+     * 总数，游标分页且不统计总数时为 -1
+     */
     private long totalElements;
+
+    /**
+     * 游标分页时下一页的游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    public PageResult(List<T> content, long totalElements) {
+        this.content = content;
+        this.totalElements = totalElements;
+    }
 }
@@ -16,7 +16,10 @@
 package me.zhengjie.utils;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import me.zhengjie.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Function;
 
 /**
  * 分页工具
@@ -67,4 +70,40 @@ public class PageUtil extends cn.hutool.core.util.PageUtil {
     public static <T> PageResult<T> toPage(List<T> list, long totalElements) {
         return new PageResult<>(list, totalElements);
     }
+
+    /**
+     * 游标分页，list 需要多查询一条用于判断是否还有下一页
+     * @param list 按 id 倒序查询的 size + 1 条数据
+     * @param size 每页数量
+     * @param totalElements 总数，不统计时传 -1
+     * @param idGetter 获取 id
+     */
+    public static <T> PageResult<T> toCursorPage(List<T> list, int size, long totalElements, Function<T, Long> idGetter) {
+        if (list.size() <= size) {
+            return new PageResult<>(list, totalElements, null);
+        }
+        List<T> content = new ArrayList<>(list.subList(0, size));
+        return new PageResult<>(content, totalElements, encodeCursor(idGetter.apply(content.get(size - 1))));
+    }
+
+    /**
+     * 生成游标，对调用方不透明
+     */
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标，为空时表示第一页
+     */
+    public static Long decodeCursor(String cursor) {
+        if (StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("游标无效");
+        }
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.utils;
+
+import org.springframework.security.core.GrantedAuthority;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 当前用户的权限集合，不可变
+ * 同一个请求内只构建一次，权限判断为 O(1) 的哈希查找
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public final class PermissionSet {
+
+    /**
+     * 请求属性名称
+     */
+    public static final String ATTRIBUTE = PermissionSet.class.getName();
+
+    /**
+     * 超级管理员权限
+     */
+    public static final String ADMIN = "admin";
+
+    private final Set<String> permissions;
+
+    private final boolean admin;
+
+    private PermissionSet(Set<String> permissions) {
+        this.permissions = permissions;
+        this.admin = permissions.contains(ADMIN);
+    }
+
+    public static PermissionSet of(Collection<? extends GrantedAuthority> authorities) {
+        Set<String> permissions = new HashSet<>(authorities.size() * 2);
+        for (GrantedAuthority authority : authorities) {
+            if (authority.getAuthority() != null) {
+                permissions.add(authority.getAuthority().intern());
+            }
+        }
+        return new PermissionSet(Collections.unmodifiableSet(permissions));
+    }
+
+    /**
+     * 是否拥有其中任意一个权限，超级管理员拥有所有权限
+     * @param permissions 权限
+     * @return /
+     */
+    public boolean hasAny(String... permissions) {
+        if (admin) {
+            return true;
+        }
+        for (String permission : permissions) {
+            if (this.permissions.contains(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isAdmin() {
+        return admin;
+    }
+
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+}
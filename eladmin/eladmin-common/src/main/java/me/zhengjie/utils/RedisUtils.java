@@ -24,8 +24,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -38,10 +41,33 @@ import java.util.stream.Collectors;
 public class RedisUtils {
     private static final Logger log = LoggerFactory.getLogger(RedisUtils.class);
 
+    /**
+     * key 不存在时 PTTL 的返回值
+     */
+    public static final long KEY_NOT_EXISTS = -2;
+
+    /**
+     * 单条 UNLINK 命令携带的 key 数量
+     */
+    private static final int UNLINK_BATCH_SIZE = 500;
+
+    /**
+     * 剩余时间小于检查范围时续期，返回续期前的剩余时间(毫秒)
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "local ttl = redis.call('pttl', KEYS[1])" +
+            "\nif ttl >= 0 and ttl <= tonumber(ARGV[1]) then" +
+            "\nredis.call('pexpire', KEYS[1], ttl + tonumber(ARGV[2]))" +
+            "\nend" +
+            "\nreturn ttl", Long.class);
+
     private RedisTemplate<Object, Object> redisTemplate;
 
-    public RedisUtils(RedisTemplate<Object, Object> redisTemplate) {
+    private NearCache nearCache;
+
+    public RedisUtils(RedisTemplate<Object, Object> redisTemplate, NearCache nearCache) {
         this.redisTemplate = redisTemplate;
+        this.nearCache = nearCache;
         this.redisTemplate.setKeySerializer(new StringRedisSerializer());
         this.redisTemplate.setHashKeySerializer(new StringRedisSerializer());
     }
@@ -93,6 +119,21 @@ public class RedisUtils {
         return redisTemplate.getExpire(key, TimeUnit.SECONDS);
     }
 
+    /**
+     * 判断 key 是否存在，剩余时间小于检查范围时续期，一次网络往返完成
+     *
+     * @param key    键
+     * @param detect 续期检查范围(毫秒)
+     * @param renew  续期时间(毫秒)
+     * @return 续期前的剩余时间(毫秒)，-1 代表永久有效，-2 代表不存在
+     */
+    public long renewIfExpiring(String key, long detect, long renew) {
+        StringRedisSerializer serializer = StringRedisSerializer.UTF_8;
+        Long ttl = redisTemplate.execute(RENEW_SCRIPT, serializer, null, Collections.singletonList(key),
+                String.valueOf(detect), String.valueOf(renew));
+        return ttl == null ? KEY_NOT_EXISTS : ttl;
+    }
+
     /**
      * 查找匹配key
      *
@@ -177,21 +218,14 @@ public class RedisUtils {
     public void del(String... keys) {
         if (keys != null && keys.length > 0) {
             if (keys.length == 1) {
+                // 先删除 Redis 再失效本地缓存，避免删除前读到的旧值重新放入本地缓存
                 boolean result = redisTemplate.delete(keys[0]);
+                nearCache.evict(Collections.singletonList(keys[0]));
                 log.debug("--------------------------------------------");
                 log.debug(new StringBuilder("删除缓存：").append(keys[0]).append("，结果：").append(result).toString());
                 log.debug("--------------------------------------------");
             } else {
-                Set<Object> keySet = new HashSet<>();
-                for (String key : keys) {
-                    if (redisTemplate.hasKey(key))
-                        keySet.add(key);
-                }
-                long count = redisTemplate.delete(keySet);
-                log.debug("--------------------------------------------");
-                log.debug("成功删除缓存：" + keySet.toString());
-                log.debug("缓存删除数量：" + count + "个");
-                log.debug("--------------------------------------------");
+                unlink(Arrays.asList(keys));
             }
         }
     }
@@ -230,18 +264,24 @@ public class RedisUtils {
      * @return 值
      */
     public <T> T get(String key, Class<T> clazz) {
+        // 优先读取本地缓存
+        Object local = nearCache.get(key);
+        if (clazz.isInstance(local)) {
+            return clazz.cast(local);
+        }
         Object value = key == null ? null : redisTemplate.opsForValue().get(key);
         if (value == null) {
             return null;
         }
+        T result;
         // 如果 value 不是目标类型，则尝试将其反序列化为 clazz 类型
         if (!clazz.isInstance(value)) {
-            return JSON.parseObject(value.toString(), clazz);
-        } else if (clazz.isInstance(value)) {
-            return clazz.cast(value);
+            result = JSON.parseObject(value.toString(), clazz);
         } else {
-            return null;
+            result = clazz.cast(value);
         }
+        nearCache.put(key, result);
+        return result;
     }
 
     /**
@@ -252,6 +292,11 @@ public class RedisUtils {
      * @return 值
      */
     public <T> List<T> getList(String key, Class<T> clazz) {
+        // 优先读取本地缓存，放入时已校验过元素类型
+        Object local = nearCache.get(key);
+        if (local instanceof List<?>) {
+            return (List<T>) local;
+        }
         Object value = key == null ? null : redisTemplate.opsForValue().get(key);
         if (value == null) {
             return null;
@@ -260,7 +305,9 @@ public class RedisUtils {
             List<?> list = (List<?>) value;
             // 检查每个元素是否为指定类型
             if (list.stream().allMatch(clazz::isInstance)) {
-                return list.stream().map(clazz::cast).collect(Collectors.toList());
+                List<T> result = list.stream().map(clazz::cast).collect(Collectors.toList());
+                nearCache.put(key, result);
+                return result;
             }
         }
         return null;
@@ -310,6 +357,7 @@ public class RedisUtils {
         while (attempt < 3) {
             try {
                 redisTemplate.opsForValue().set(key, value);
+                nearCache.put(key, value);
                 return true;
             } catch (Exception e) {
                 attempt++;
@@ -331,6 +379,7 @@ public class RedisUtils {
         try {
             if (time > 0) {
                 redisTemplate.opsForValue().set(key, value, time, TimeUnit.SECONDS);
+                nearCache.put(key, value, time, TimeUnit.SECONDS);
             } else {
                 set(key, value);
             }
@@ -354,6 +403,7 @@ public class RedisUtils {
         try {
             if (time > 0) {
                 redisTemplate.opsForValue().set(key, value, time, timeUnit);
+                nearCache.put(key, value, time, timeUnit);
             } else {
                 set(key, value);
             }
@@ -775,15 +825,63 @@ public class RedisUtils {
     }
 
     /**
+     * 根据前缀与 id 拼接出完整的 key 后批量删除，不使用 KEYS 命令
      * @param prefix 前缀
      * @param ids    id
+     * @return 删除的数量
+     */
+    public long delByKeys(String prefix, Set<Long> ids) {
+        return delByKeys(ids, prefix);
+    }
+
+    /**
+     * 多个前缀共用同一批 id 时，一次性删除
+     * @param ids      id
+     * @param prefixes 前缀
+     * @return 删除的数量
+     */
+    public long delByKeys(Collection<Long> ids, String... prefixes) {
+        if (ids == null || ids.isEmpty() || prefixes.length == 0) {
+            return 0;
+        }
+        List<String> keys = new ArrayList<>(ids.size() * prefixes.length);
+        for (String prefix : prefixes) {
+            for (Long id : ids) {
+                keys.add(prefix + id);
+            }
+        }
+        return unlink(keys);
+    }
+
+    /**
+     * 通过管道批量执行 UNLINK，由 Redis 后台线程回收内存，不阻塞主线程
+     * @param keys 完整的 key
+     * @return 删除的数量
      */
-    public void delByKeys(String prefix, Set<Long> ids) {
-        Set<Object> keys = new HashSet<>();
-        for (Long id : ids) {
-            keys.addAll(redisTemplate.keys(new StringBuffer(prefix).append(id).toString()));
+    public long unlink(Collection<String> keys) {
+        if (keys == null || keys.isEmpty()) {
+            return 0;
+        }
+        List<byte[]> rawKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            rawKeys.add(key.getBytes(StandardCharsets.UTF_8));
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (List<byte[]> batch : Lists.partition(rawKeys, UNLINK_BATCH_SIZE)) {
+                connection.unlink(batch.toArray(new byte[0][]));
+            }
+            return null;
+        });
+        // Redis 删除后再失效本地缓存并通知其他节点
+        nearCache.evict(keys);
+        long count = 0;
+        for (Object result : results) {
+            if (result instanceof Number) {
+                count += ((Number) result).longValue();
+            }
         }
-        long count = redisTemplate.delete(keys);
+        log.debug("缓存删除数量：{}个，key 数量：{}个", count, keys.size());
+        return count;
     }
 
     // ============================incr=============================
@@ -15,7 +15,6 @@
  */
 package me.zhengjie.utils;
 
-import cn.hutool.core.collection.CollUtil;
 import cn.hutool.jwt.JWT;
 import cn.hutool.jwt.JWTUtil;
 import com.alibaba.fastjson2.JSON;
@@ -27,6 +26,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import javax.servlet.http.HttpServletRequest;
@@ -65,16 +65,50 @@ public class SecurityUtils {
         return userDetailsService.loadUserByUsername(getCurrentUsername());
     }
 
+    /**
+     * 获取当前用户的权限集合，同一个请求内只加载一次
+     * @return /
+     */
+    public static PermissionSet getCurrentPermissions() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object permissions = attributes.getAttribute(PermissionSet.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (permissions instanceof PermissionSet) {
+                return (PermissionSet) permissions;
+            }
+        }
+        PermissionSet permissions = PermissionSet.of(getCurrentUser().getAuthorities());
+        if (attributes != null) {
+            attributes.setAttribute(PermissionSet.ATTRIBUTE, permissions, RequestAttributes.SCOPE_REQUEST);
+        }
+        return permissions;
+    }
+
+    /**
+     * 获取当前用户的数据权限，同一个请求内只加载一次
+     * @return /
+     */
+    public static DataScope getCurrentDataScope() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object dataScope = attributes.getAttribute(DataScope.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (dataScope instanceof DataScope) {
+                return (DataScope) dataScope;
+            }
+        }
+        DataScope dataScope = DataScope.of(loadDataScopes(getCurrentUser()));
+        if (attributes != null) {
+            attributes.setAttribute(DataScope.ATTRIBUTE, dataScope, RequestAttributes.SCOPE_REQUEST);
+        }
+        return dataScope;
+    }
+
     /**
      * 获取当前用户的数据权限
      * @return /
      */
     public static List<Long> getCurrentUserDataScope(){
-        UserDetails userDetails = getCurrentUser();
-        // 将 Java 对象转换为 JSONObject 对象
-        JSONObject jsonObject = (JSONObject) JSON.toJSON(userDetails);
-        JSONArray jsonArray = jsonObject.getJSONArray("dataScopes");
-        return JSON.parseArray(jsonArray.toJSONString(), Long.class);
+        return getCurrentDataScope().toList();
     }
 
     /**
@@ -82,18 +116,31 @@ public class SecurityUtils {
      * @return 级别
      */
     public static String getDataScopeType() {
-        List<Long> dataScopes = getCurrentUserDataScope();
-        if(CollUtil.isEmpty(dataScopes)){
+        if(getCurrentDataScope().isEmpty()){
             return "";
         }
         return DataScopeEnum.ALL.getValue();
     }
 
+    private static List<Long> loadDataScopes(UserDetails userDetails) {
+        if (userDetails instanceof DataScope.Provider) {
+            return ((DataScope.Provider) userDetails).getDataScopes();
+        }
+        // 未实现 DataScope.Provider 的用户对象，按属性名读取
+        JSONObject jsonObject = (JSONObject) JSON.toJSON(userDetails);
+        JSONArray jsonArray = jsonObject.getJSONArray("dataScopes");
+        return jsonArray == null ? null : jsonArray.toList(Long.class);
+    }
+
     /**
      * 获取用户ID
      * @return 系统用户ID
      */
     public static Long getCurrentUserId() {
+        TokenContext context = TokenContext.current();
+        if (context != null) {
+            return context.getUserId();
+        }
         return getCurrentUserId(getToken());
     }
 
@@ -102,6 +149,11 @@ public class SecurityUtils {
      * @return 系统用户ID
      */
     public static Long getCurrentUserId(String token) {
+        // 优先使用 TokenFilter 已解析的结果
+        TokenContext context = TokenContext.current(token);
+        if (context != null) {
+            return context.getUserId();
+        }
         JWT jwt = JWTUtil.parseToken(token);
         return Long.valueOf(jwt.getPayload("userId").toString());
     }
@@ -112,6 +164,10 @@ public class SecurityUtils {
      * @return 系统用户名称
      */
     public static String getCurrentUsername() {
+        TokenContext context = TokenContext.current();
+        if (context != null) {
+            return context.getUsername();
+        }
         return getCurrentUsername(getToken());
     }
 
@@ -121,6 +177,11 @@ public class SecurityUtils {
      * @return 系统用户名称
      */
     public static String getCurrentUsername(String token) {
+        // 优先使用 TokenFilter 已解析的结果
+        TokenContext context = TokenContext.current(token);
+        if (context != null) {
+            return context.getUsername();
+        }
         JWT jwt = JWTUtil.parseToken(token);
         return jwt.getPayload("sub").toString();
     }
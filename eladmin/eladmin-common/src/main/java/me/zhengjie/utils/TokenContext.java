@@ -0,0 +1,93 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 当前请求中已校验过签名的 Token 信息
+ * 由 TokenFilter 解析一次后绑定到请求上，后续获取用户名、用户ID等直接复用，不再重复解析
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Getter
+@AllArgsConstructor
+public class TokenContext {
+
+    /**
+     * 请求属性名称
+     */
+    public static final String ATTRIBUTE = TokenContext.class.getName();
+
+    /**
+     * 原始 Token
+     */
+    private final String token;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 会话编号
+     */
+    private final String uid;
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 绑定到请求
+     * @param request /
+     * @param context /
+     */
+    public static void bind(HttpServletRequest request, TokenContext context) {
+        request.setAttribute(ATTRIBUTE, context);
+    }
+
+    /**
+     * 获取当前请求已解析的 Token，非请求线程或未解析时返回 null
+     * @return /
+     */
+    public static TokenContext current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object context = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return context instanceof TokenContext ? (TokenContext) context : null;
+    }
+
+    /**
+     * 获取当前请求已解析的 Token，且与传入的 Token 一致
+     * @param token /
+     * @return /
+     */
+    public static TokenContext current(String token) {
+        TokenContext context = current();
+        if (context != null && context.getToken().equals(token)) {
+            return context;
+        }
+        return null;
+    }
+}
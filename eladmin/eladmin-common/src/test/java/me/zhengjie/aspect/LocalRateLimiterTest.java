@@ -0,0 +1,45 @@
+package me.zhengjie.aspect;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalRateLimiterTest {
+
+    private static final long PERIOD = 60000;
+
+    @Test
+    public void testFixedWindow() {
+        LocalRateLimiter.State state = new LocalRateLimiter.State(PERIOD);
+        long now = PERIOD * 100;
+        assertTrue(state.acquire(LimitAlgorithm.FIXED_WINDOW, 2, PERIOD, now));
+        assertTrue(state.acquire(LimitAlgorithm.FIXED_WINDOW, 2, PERIOD, now + 1));
+        assertFalse(state.acquire(LimitAlgorithm.FIXED_WINDOW, 2, PERIOD, now + 2));
+        // 下一个窗口重新计数
+        assertTrue(state.acquire(LimitAlgorithm.FIXED_WINDOW, 2, PERIOD, now + PERIOD));
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        LocalRateLimiter.State state = new LocalRateLimiter.State(PERIOD);
+        long now = PERIOD * 100 + PERIOD - 10;
+        assertTrue(state.acquire(LimitAlgorithm.SLIDING_WINDOW, 2, PERIOD, now));
+        assertTrue(state.acquire(LimitAlgorithm.SLIDING_WINDOW, 2, PERIOD, now));
+        // 刚进入下一个窗口，上一个窗口的计数仍然有效
+        assertFalse(state.acquire(LimitAlgorithm.SLIDING_WINDOW, 2, PERIOD, now + 20));
+        assertTrue(state.acquire(LimitAlgorithm.SLIDING_WINDOW, 2, PERIOD, now + PERIOD));
+    }
+
+    @Test
+    public void testTokenBucket() {
+        LocalRateLimiter.State state = new LocalRateLimiter.State(PERIOD);
+        long now = PERIOD * 100;
+        assertTrue(state.acquire(LimitAlgorithm.TOKEN_BUCKET, 2, PERIOD, now));
+        assertTrue(state.acquire(LimitAlgorithm.TOKEN_BUCKET, 2, PERIOD, now));
+        assertFalse(state.acquire(LimitAlgorithm.TOKEN_BUCKET, 2, PERIOD, now));
+        // 半个周期补充一个令牌
+        assertTrue(state.acquire(LimitAlgorithm.TOKEN_BUCKET, 2, PERIOD, now + PERIOD / 2));
+        assertFalse(state.acquire(LimitAlgorithm.TOKEN_BUCKET, 2, PERIOD, now + PERIOD / 2));
+    }
+}
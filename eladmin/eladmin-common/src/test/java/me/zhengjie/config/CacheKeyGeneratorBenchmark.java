@@ -0,0 +1,116 @@
+package me.zhengjie.config;
+
+import com.alibaba.fastjson2.JSON;
+import org.apache.commons.codec.digest.MurmurHash3;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.cache.interceptor.KeyGenerator;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存 key 生成的耗时与内存分配对比，main 方法会开启 GC 分析(gc.alloc.rate.norm)
+ * legacy：原实现，HashMap + JSON + MurmurHash3
+ * streaming：CacheKeyGenerator
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyGeneratorBenchmark {
+
+    private final KeyGenerator legacy = (target, method, params) -> {
+        Map<String,Object> container = new HashMap<>(8);
+        Class<?> targetClassClass = target.getClass();
+        container.put("class",targetClassClass.toGenericString());
+        container.put("methodName",method.getName());
+        container.put("package",targetClassClass.getPackage());
+        for (int i = 0; i < params.length; i++) {
+            container.put(String.valueOf(i),params[i]);
+        }
+        String jsonString = JSON.toJSONString(container);
+        return Integer.toHexString(MurmurHash3.hash32x86(jsonString.getBytes()));
+    };
+
+    private final KeyGenerator streaming = new CacheKeyGenerator();
+
+    private final Service target = new Service();
+    private Method method;
+    private Object[] simple;
+    private Object[] complex;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        method = Service.class.getMethod("find", Object.class, Object.class);
+        simple = new Object[]{1L, "admin"};
+        Criteria criteria = new Criteria();
+        criteria.setName("admin");
+        criteria.setDeptIds(Arrays.asList(1L, 2L, 7L));
+        complex = new Object[]{criteria, 10};
+    }
+
+    @Benchmark
+    public Object legacySimple() {
+        return legacy.generate(target, method, simple);
+    }
+
+    @Benchmark
+    public Object streamingSimple() {
+        return streaming.generate(target, method, simple);
+    }
+
+    @Benchmark
+    public Object legacyComplex() {
+        return legacy.generate(target, method, complex);
+    }
+
+    @Benchmark
+    public Object streamingComplex() {
+        return streaming.generate(target, method, complex);
+    }
+
+    public static class Service {
+        public Object find(Object first, Object second) {
+            return null;
+        }
+    }
+
+    public static class Criteria {
+        private String name;
+        private List<Long> deptIds;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<Long> getDeptIds() {
+            return deptIds;
+        }
+
+        public void setDeptIds(List<Long> deptIds) {
+            this.deptIds = deptIds;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(CacheKeyGeneratorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
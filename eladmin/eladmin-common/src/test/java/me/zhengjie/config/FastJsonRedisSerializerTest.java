@@ -0,0 +1,73 @@
+package me.zhengjie.config;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONWriter;
+import me.zhengjie.config.properties.RedisSerializerProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastJsonRedisSerializerTest {
+
+    @Test
+    public void testReadLegacyJson() {
+        Map<String, Object> value = value(3);
+        byte[] legacy = JSON.toJSONString(value, JSONWriter.Feature.WriteClassName).getBytes();
+        assertEquals(value, serializer(RedisSerializerProperties.Format.JSONB, 0).deserialize(legacy));
+    }
+
+    @Test
+    public void testJsonb() {
+        Map<String, Object> value = value(3);
+        byte[] bytes = serializer(RedisSerializerProperties.Format.JSONB, 0).serialize(value);
+        assertEquals(RedisConfiguration.FastJsonRedisSerializer.MAGIC, bytes[0]);
+        assertEquals(0, bytes[2]);
+        // json 格式的节点也能读取 jsonb
+        assertEquals(value, serializer(RedisSerializerProperties.Format.JSON, 0).deserialize(bytes));
+    }
+
+    @Test
+    public void testCompress() {
+        Map<String, Object> value = value(1000);
+        byte[] plain = serializer(RedisSerializerProperties.Format.JSONB, 0).serialize(value);
+        byte[] bytes = serializer(RedisSerializerProperties.Format.JSONB, 1024).serialize(value);
+        assertEquals(RedisConfiguration.FastJsonRedisSerializer.FLAG_LZ4, bytes[2]);
+        assertTrue(bytes.length < plain.length);
+        assertEquals(value, serializer(RedisSerializerProperties.Format.JSON, 0).deserialize(bytes));
+    }
+
+    @Test
+    public void testTruncated() {
+        RedisConfiguration.FastJsonRedisSerializer<Object> serializer = serializer(RedisSerializerProperties.Format.JSONB, 1024);
+        byte[] bytes = serializer.serialize(value(1000));
+        for (int length : new int[]{2, 3, 5, 7, bytes.length / 2}) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+        }
+    }
+
+    private RedisConfiguration.FastJsonRedisSerializer<Object> serializer(RedisSerializerProperties.Format format, int threshold) {
+        RedisSerializerProperties properties = new RedisSerializerProperties();
+        properties.setFormat(format);
+        properties.setCompressThreshold(threshold);
+        return new RedisConfiguration.FastJsonRedisSerializer<>(Object.class, properties);
+    }
+
+    private Map<String, Object> value(int size) {
+        Map<String, Object> value = new HashMap<>(4);
+        List<String> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add("menu:" + i);
+        }
+        value.put("username", "admin");
+        value.put("items", items);
+        return value;
+    }
+}
@@ -0,0 +1,30 @@
+package me.zhengjie.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataScopeTest {
+
+    @Test
+    public void testOf() {
+        DataScope dataScope = DataScope.of(Arrays.asList(7L, 2L, 7L, 5L));
+        assertEquals(3, dataScope.size());
+        assertArrayEquals(new long[]{2L, 5L, 7L}, dataScope.toArray());
+        assertEquals(Arrays.asList(2L, 5L, 7L), dataScope.toList());
+        assertTrue(dataScope.contains(5L));
+        assertFalse(dataScope.contains(6L));
+    }
+
+    @Test
+    public void testEmpty() {
+        DataScope dataScope = DataScope.of(Collections.emptyList());
+        assertTrue(dataScope.isEmpty());
+        // 为空表示不限制部门
+        assertTrue(dataScope.contains(1L));
+        assertTrue(DataScope.of(null).isEmpty());
+    }
+}
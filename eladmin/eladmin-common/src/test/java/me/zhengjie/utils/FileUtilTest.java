@@ -1,10 +1,18 @@
 package me.zhengjie.utils;
 
+import cn.hutool.core.util.HexUtil;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 import static me.zhengjie.utils.FileUtil.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class FileUtilTest {
 
@@ -33,4 +41,50 @@ public class FileUtilTest {
         assertEquals("1.00MB   ", getSize(1048576));
         assertEquals("1.00GB   ", getSize(1073741824));
     }
+
+    @Test
+    public void testUploadWithDigest() {
+        MockMultipartFile multipartFile = new MockMultipartFile("file", "hello.txt", "text/plain",
+                "hello".getBytes(StandardCharsets.UTF_8));
+        MessageDigest digest = newDigest(SHA256);
+        File file = upload(multipartFile, SYS_TEM_DIR + "eladmin-upload-test" + File.separator, digest);
+        assertNotNull(file);
+        try {
+            String sha256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+            assertEquals(sha256, HexUtil.encodeHexStr(digest.digest()));
+            assertEquals(sha256, getDigest(file, SHA256));
+            assertEquals("5d41402abc4b2a76b9719d911017c592", getMd5(file));
+            assertEquals(5, file.length());
+        } finally {
+            del(file);
+        }
+    }
+
+    @Test
+    public void testDownloadRange() throws Exception {
+        File file = File.createTempFile("eladmin-range", ".txt");
+        try {
+            Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+            MockHttpServletResponse response = range(file, "bytes=2-5");
+            assertEquals(206, response.getStatus());
+            assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+            assertEquals("2345", response.getContentAsString());
+            // 缺少 "-" 或超出文件大小时返回 416
+            for (String invalid : new String[]{"bytes=100", "bytes=20-", "bytes=-"}) {
+                response = range(file, invalid);
+                assertEquals(416, response.getStatus());
+                assertEquals("bytes */10", response.getHeader("Content-Range"));
+            }
+        } finally {
+            del(file);
+        }
+    }
+
+    private static MockHttpServletResponse range(File file, String range) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/file");
+        request.addHeader("Range", range);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        downloadRange(request, response, file, "range.txt", "text/plain");
+        return response;
+    }
 }
@@ -0,0 +1,31 @@
+package me.zhengjie.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PermissionSetTest {
+
+    @Test
+    public void testHasAny() {
+        PermissionSet permissions = PermissionSet.of(Arrays.asList(
+                new SimpleGrantedAuthority("user:list"), new SimpleGrantedAuthority("user:add")));
+        assertTrue(permissions.hasAny("user:add"));
+        assertTrue(permissions.hasAny("user:del", "user:list"));
+        assertFalse(permissions.hasAny("user:del"));
+        assertFalse(permissions.hasAny());
+        assertFalse(permissions.isAdmin());
+    }
+
+    @Test
+    public void testAdmin() {
+        PermissionSet permissions = PermissionSet.of(Collections.singletonList(new SimpleGrantedAuthority("admin")));
+        assertTrue(permissions.isAdmin());
+        assertTrue(permissions.hasAny("anything"));
+    }
+}
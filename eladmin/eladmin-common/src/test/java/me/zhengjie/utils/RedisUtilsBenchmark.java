@@ -0,0 +1,127 @@
+package me.zhengjie.utils;
+
+import me.zhengjie.config.properties.NearCacheProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 修改角色时清理受影响用户缓存的耗时对比，需要本地 Redis
+ * 通过 -Dredis.host、-Dredis.port、-Dredis.database 指定，默认 127.0.0.1:6379/15
+ * legacy：原 delByKeys，每个 id 执行一次 KEYS
+ * unlink：拼接完整 key，管道批量 UNLINK
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RedisUtilsBenchmark {
+
+    private static final String[] PREFIXES = {CacheKey.MENU_USER, CacheKey.ROLE_AUTH, CacheKey.ROLE_USER};
+
+    /** 受影响的用户数量 */
+    @Param({"1000", "10000"})
+    private int users;
+
+    /** 库中其他无关 key 的数量，KEYS 的耗时与总 key 数量相关 */
+    @Param({"100000"})
+    private int fillers;
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<Object, Object> redisTemplate;
+    private RedisUtils redisUtils;
+    private Set<Long> userIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "127.0.0.1"), Integer.getInteger("redis.port", 6379));
+        configuration.setDatabase(Integer.getInteger("redis.database", 15));
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        NearCacheProperties properties = new NearCacheProperties();
+        properties.setEnabled(false);
+        redisUtils = new RedisUtils(redisTemplate, new NearCache(properties, redisTemplate));
+        userIds = new LinkedHashSet<>(users);
+        for (long i = 1; i <= users; i++) {
+            userIds.add(i);
+        }
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.flushDb();
+            return null;
+        });
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] value = "1".getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < fillers; i++) {
+                connection.set(("filler::" + i).getBytes(StandardCharsets.UTF_8), value);
+            }
+            return null;
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void seed() {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            byte[] value = "1".getBytes(StandardCharsets.UTF_8);
+            for (String prefix : PREFIXES) {
+                for (Long id : userIds) {
+                    connection.set((prefix + id).getBytes(StandardCharsets.UTF_8), value);
+                }
+            }
+            return null;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.flushDb();
+            return null;
+        });
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public long legacy() {
+        long count = 0;
+        for (String prefix : PREFIXES) {
+            Set<Object> keys = new HashSet<>();
+            for (Long id : userIds) {
+                keys.addAll(redisTemplate.keys(prefix + id));
+            }
+            count += redisTemplate.delete(keys);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long unlink() {
+        return redisUtils.delByKeys(userIds, PREFIXES);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RedisUtilsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,67 @@
+package me.zhengjie.utils;
+
+import me.zhengjie.config.properties.NearCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+public class RedisUtilsNearCacheTest {
+
+    private static final String KEY = CacheKey.USER_ID + 1;
+
+    private final AtomicReference<Object> redis = new AtomicReference<>();
+    private RedisTemplate<Object, Object> redisTemplate;
+    private NearCache nearCache;
+    private RedisUtils redisUtils;
+
+    @BeforeEach
+    public void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<Object, Object> ops = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(ops);
+        when(ops.get(KEY)).thenAnswer(invocation -> redis.get());
+        NearCacheProperties.Spec spec = new NearCacheProperties.Spec();
+        spec.setPrefix(CacheKey.USER_ID);
+        NearCacheProperties properties = new NearCacheProperties();
+        properties.setCaches(Collections.singletonList(spec));
+        nearCache = new NearCache(properties, redisTemplate);
+        redisUtils = new RedisUtils(redisTemplate, nearCache);
+    }
+
+    @Test
+    public void testReadDuringDelete() {
+        redis.set("old");
+        assertEquals("old", redisUtils.get(KEY, String.class));
+        // 删除 Redis 的同时有请求读到旧值并放入本地缓存
+        when(redisTemplate.delete(KEY)).thenAnswer(invocation -> {
+            assertEquals("old", redisUtils.get(KEY, String.class));
+            redis.set(null);
+            return true;
+        });
+        redisUtils.del(KEY);
+        assertNull(nearCache.get(KEY));
+        assertNull(redisUtils.get(KEY, String.class));
+    }
+
+    @Test
+    public void testReadDuringUnlink() {
+        redis.set("old");
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            assertEquals("old", redisUtils.get(KEY, String.class));
+            redis.set(null);
+            return Collections.singletonList(1L);
+        });
+        assertEquals(1, redisUtils.unlink(Collections.singletonList(KEY)));
+        assertNull(nearCache.get(KEY));
+    }
+}
@@ -28,8 +28,12 @@ import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Zheng Jie
@@ -44,6 +48,9 @@ public class LogAspect {
 
     ThreadLocal<Long> currentTime = new ThreadLocal<>();
 
+    /** 方法的日志描述缓存 */
+    private final Map<Method, LogDescriptor> descriptors = new ConcurrentHashMap<>();
+
     public LogAspect(SysLogService sysLogService) {
         this.sysLogService = sysLogService;
     }
@@ -69,7 +76,7 @@ public class LogAspect {
         SysLog sysLog = new SysLog("INFO",System.currentTimeMillis() - currentTime.get());
         currentTime.remove();
         HttpServletRequest request = RequestHolder.getHttpServletRequest();
-        sysLogService.save(getUsername(), StringUtils.getBrowser(request), StringUtils.getIp(request),joinPoint, sysLog);
+        sysLogService.save(getUsername(), StringUtils.getBrowser(request), StringUtils.getIp(request), getDescriptor(joinPoint), joinPoint.getArgs(), sysLog);
         return result;
     }
 
@@ -85,7 +92,17 @@ public class LogAspect {
         currentTime.remove();
         sysLog.setExceptionDetail(new String(ThrowableUtil.getStackTrace(e).getBytes()));
         HttpServletRequest request = RequestHolder.getHttpServletRequest();
-        sysLogService.save(getUsername(), StringUtils.getBrowser(request), StringUtils.getIp(request), (ProceedingJoinPoint)joinPoint, sysLog);
+        sysLogService.save(getUsername(), StringUtils.getBrowser(request), StringUtils.getIp(request), getDescriptor(joinPoint), joinPoint.getArgs(), sysLog);
+    }
+
+    /**
+     * 获取方法的日志描述，每个方法只构建一次
+     * @param joinPoint /
+     * @return /
+     */
+    private LogDescriptor getDescriptor(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return descriptors.computeIfAbsent(method, m -> LogDescriptor.of(joinPoint.getTarget().getClass(), m));
     }
 
     /**
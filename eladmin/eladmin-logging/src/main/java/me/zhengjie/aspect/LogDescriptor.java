@@ -0,0 +1,131 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.aspect;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import lombok.Getter;
+import me.zhengjie.annotation.Log;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.multipart.MultipartFile;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 被 @Log 标注的方法的日志描述，每个方法只构建一次
+ * 预先确定需要记录的参数、参数名称与需要脱敏的字段，请求时不再反射
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Getter
+public final class LogDescriptor {
+
+    /** 需要脱敏的字段 */
+    private static final Set<String> SENSITIVE_KEYS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("password")));
+    private static final String MASK = "******";
+
+    /** 日志描述，@Log 的 value */
+    private final String description;
+    /** 方法路径 */
+    private final String methodName;
+    /** 需要记录的参数下标 */
+    private final int[] indexes;
+    /** 对应的参数名称 */
+    private final String[] names;
+    /** 是否为 @RequestBody 参数 */
+    private final boolean[] bodies;
+
+    private LogDescriptor(String description, String methodName, int[] indexes, String[] names, boolean[] bodies) {
+        this.description = description;
+        this.methodName = methodName;
+        this.indexes = indexes;
+        this.names = names;
+        this.bodies = bodies;
+    }
+
+    public static LogDescriptor of(Class<?> targetClass, Method method) {
+        Log log = method.getAnnotation(Log.class);
+        List<Integer> indexes = new ArrayList<>();
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            // 过滤掉 MultipartFile、HttpServletRequest、HttpServletResponse
+            if (!isIgnored(parameters[i].getType())) {
+                indexes.add(i);
+            }
+        }
+        int[] kept = new int[indexes.size()];
+        String[] names = new String[kept.length];
+        boolean[] bodies = new boolean[kept.length];
+        for (int i = 0; i < kept.length; i++) {
+            Parameter parameter = parameters[indexes.get(i)];
+            kept[i] = indexes.get(i);
+            names[i] = parameter.getName();
+            bodies[i] = parameter.isAnnotationPresent(RequestBody.class);
+        }
+        return new LogDescriptor(log == null ? "" : log.value(),
+                targetClass.getName() + "." + method.getName() + "()", kept, names, bodies);
+    }
+
+    /**
+     * 根据传入的参数获取请求参数，在请求线程中调用，不保留参数对象的引用
+     * @param args 方法参数
+     * @return /
+     */
+    public JSONObject toParams(Object[] args) {
+        JSONObject params = new JSONObject();
+        for (int i = 0; i < indexes.length; i++) {
+            Object arg = args[indexes[i]];
+            // 参数声明为父类型时再按实际类型过滤一次
+            if (arg != null && isIgnored(arg.getClass())) {
+                continue;
+            }
+            // 将RequestBody注解修饰的参数作为请求参数
+            if (bodies[i]) {
+                Object json = JSON.toJSON(arg);
+                if (json instanceof JSONArray) {
+                    params.put("reqBodyList", json);
+                } else if (json instanceof JSONObject) {
+                    params.putAll((JSONObject) json);
+                } else {
+                    params.put(names[i], json);
+                }
+            } else {
+                params.put(names[i], arg);
+            }
+        }
+        // 替换敏感字段的值
+        for (String key : SENSITIVE_KEYS) {
+            if (params.containsKey(key)) {
+                params.put(key, MASK);
+            }
+        }
+        return params;
+    }
+
+    private static boolean isIgnored(Class<?> type) {
+        return MultipartFile.class.isAssignableFrom(type) || MultipartFile[].class.isAssignableFrom(type)
+                || ServletRequest.class.isAssignableFrom(type) || ServletResponse.class.isAssignableFrom(type);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 操作日志异步批量写入配置
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "sys-log")
+public class SysLogProperties {
+
+    /** 队列容量 */
+    private int capacity = 8192;
+
+    /** 每批最多写入的条数 */
+    private int batchSize = 200;
+
+    /** 最长等待时间/毫秒，未满一批也会写入 */
+    private long flushInterval = 1000;
+
+    /** 队列已满或积压时的处理策略 */
+    private Overflow overflow = Overflow.SAMPLE;
+
+    /** sample 策略下，积压超过 80% 后 INFO 日志每 N 条保留 1 条，1 表示全部保留 */
+    private int sampleRate = 10;
+
+    /** block 策略下最长等待时间/毫秒，超时后丢弃 */
+    private long blockTimeout = 100;
+
+    /** 清空日志时每次删除的条数，分多次提交，避免长时间锁表 */
+    private int purgeBatchSize = 5000;
+
+    /** 按月分区存储 */
+    private Partition partition = new Partition();
+
+    /** 模糊查询方式，fulltext 需要先执行 sql/sys_log_fulltext.sql */
+    private Search search = Search.LIKE;
+
+    /** 关键字少于该长度时仍使用 like，与数据库 ngram_token_size 保持一致 */
+    private int fulltextMinLength = 2;
+
+    /**
+     * 采样间隔，小于 1 时按 1 处理(全部保留)
+     * @return /
+     */
+    public int getSampleRate() {
+        return Math.max(1, sampleRate);
+    }
+
+    @Data
+    public static class Partition {
+
+        /** 是否开启，开启前需执行 sql/sys_log_partition.sql */
+        private boolean enabled = false;
+
+        /** 保留的月份数，更早的分区整体删除 */
+        private int retentionMonths = 6;
+
+        /** 提前创建的月份数 */
+        private int premakeMonths = 2;
+    }
+
+    public enum Search {
+        // 多列 like '%关键字%'，需要全表扫描
+        LIKE,
+        // 使用 FULLTEXT 索引按短语匹配
+        FULLTEXT
+    }
+
+    public enum Overflow {
+        // 队列已满时直接丢弃
+        DROP,
+        // 积压时对 INFO 日志采样，ERROR 日志始终尝试写入
+        SAMPLE,
+        // 阻塞调用方，直到队列有空位或超时
+        BLOCK
+    }
+}
@@ -45,4 +45,16 @@ public class SysLogQueryCriteria {
 
     @ApiModelProperty(value = "每页数据量", example = "10")
     private Integer size = 10;
+
+    @ApiModelProperty(value = "游标分页：上一页返回的 nextCursor，第一页不传")
+    private String afterId;
+
+    @ApiModelProperty(value = "游标分页：是否统计总数")
+    private Boolean count = true;
+
+    @ApiModelProperty(value = "游标解析后的日志ID", hidden = true)
+    private Long cursorId;
+
+    @ApiModelProperty(value = "模糊查询是否使用全文索引", hidden = true)
+    private Boolean fulltext;
 }
@@ -22,6 +22,7 @@ import me.zhengjie.domain.SysLog;
 import me.zhengjie.domain.dto.SysLogQueryCriteria;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
 
@@ -39,7 +40,23 @@ public interface SysLogMapper extends BaseMapper<SysLog> {
 
     IPage<SysLog> queryAllByUser(@Param("criteria") SysLogQueryCriteria criteria, Page<SysLog> page);
 
+    Cursor<SysLog> queryCursor(@Param("criteria") SysLogQueryCriteria criteria);
+
+    List<SysLog> queryAfter(@Param("criteria") SysLogQueryCriteria criteria, @Param("limit") int limit);
+
+    List<SysLog> queryAfterByUser(@Param("criteria") SysLogQueryCriteria criteria, @Param("limit") int limit);
+
+    Long countAll(@Param("criteria") SysLogQueryCriteria criteria);
+
     String getExceptionDetails(@Param("id") Long id);
 
-    void deleteByLevel(@Param("logType") String logType);
+    void insertBatch(@Param("logs") List<SysLog> logs);
+
+    int deleteByLevelLimit(@Param("logType") String logType, @Param("partition") String partition, @Param("limit") int limit);
+
+    List<String> findPartitions();
+
+    void addPartition(@Param("name") String name, @Param("lessThan") String lessThan);
+
+    void dropPartition(@Param("name") String name);
 }
@@ -23,6 +23,8 @@ import me.zhengjie.annotation.Log;
 import me.zhengjie.domain.SysLog;
 import me.zhengjie.service.SysLogService;
 import me.zhengjie.domain.dto.SysLogQueryCriteria;
+import me.zhengjie.utils.ExportJob;
+import me.zhengjie.utils.ExportSheet;
 import me.zhengjie.utils.PageResult;
 import me.zhengjie.utils.SecurityUtils;
 import org.springframework.http.HttpStatus;
@@ -48,18 +50,40 @@ public class SysLogController {
     @ApiOperation("导出数据")
     @GetMapping(value = "/download")
     @PreAuthorize("@el.check()")
-    public void exportLog(HttpServletResponse response, SysLogQueryCriteria criteria) throws IOException {
+    public void exportLog(HttpServletResponse response, SysLogQueryCriteria criteria,
+                          @RequestParam(required = false) String format) throws IOException {
         criteria.setLogType("INFO");
-        sysLogService.download(sysLogService.queryAll(criteria), response);
+        sysLogService.download(criteria, ExportSheet.Format.of(format), response);
     }
 
     @Log("导出错误数据")
     @ApiOperation("导出错误数据")
     @GetMapping(value = "/error/download")
     @PreAuthorize("@el.check()")
-    public void exportErrorLog(HttpServletResponse response, SysLogQueryCriteria criteria) throws IOException {
+    public void exportErrorLog(HttpServletResponse response, SysLogQueryCriteria criteria,
+                               @RequestParam(required = false) String format) throws IOException {
         criteria.setLogType("ERROR");
-        sysLogService.download(sysLogService.queryAll(criteria), response);
+        sysLogService.download(criteria, ExportSheet.Format.of(format), response);
+    }
+
+    @Log("异步导出数据")
+    @ApiOperation("异步导出数据，返回导出任务")
+    @PostMapping(value = "/export")
+    @PreAuthorize("@el.check()")
+    public ResponseEntity<ExportJob> submitExportLog(SysLogQueryCriteria criteria,
+                                                     @RequestParam(required = false) String format) {
+        criteria.setLogType("INFO");
+        return new ResponseEntity<>(sysLogService.submitExport(criteria, ExportSheet.Format.of(format)), HttpStatus.CREATED);
+    }
+
+    @Log("异步导出错误数据")
+    @ApiOperation("异步导出错误数据，返回导出任务")
+    @PostMapping(value = "/error/export")
+    @PreAuthorize("@el.check()")
+    public ResponseEntity<ExportJob> submitExportErrorLog(SysLogQueryCriteria criteria,
+                                                          @RequestParam(required = false) String format) {
+        criteria.setLogType("ERROR");
+        return new ResponseEntity<>(sysLogService.submitExport(criteria, ExportSheet.Format.of(format)), HttpStatus.CREATED);
     }
 
     @GetMapping
@@ -89,6 +113,30 @@ public class SysLogController {
         return new ResponseEntity<>(sysLogService.queryAll(criteria,page), HttpStatus.OK);
     }
 
+    @GetMapping(value = "/cursor")
+    @ApiOperation("日志查询：游标分页")
+    @PreAuthorize("@el.check()")
+    public ResponseEntity<PageResult<SysLog>> queryLogAfter(SysLogQueryCriteria criteria){
+        criteria.setLogType("INFO");
+        return new ResponseEntity<>(sysLogService.queryAfter(criteria), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/user/cursor")
+    @ApiOperation("用户日志查询：游标分页")
+    public ResponseEntity<PageResult<SysLog>> queryUserLogAfter(SysLogQueryCriteria criteria){
+        criteria.setLogType("INFO");
+        criteria.setUsername(SecurityUtils.getCurrentUsername());
+        return new ResponseEntity<>(sysLogService.queryAfterByUser(criteria), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/error/cursor")
+    @ApiOperation("错误日志查询：游标分页")
+    @PreAuthorize("@el.check()")
+    public ResponseEntity<PageResult<SysLog>> queryErrorLogAfter(SysLogQueryCriteria criteria){
+        criteria.setLogType("ERROR");
+        return new ResponseEntity<>(sysLogService.queryAfter(criteria), HttpStatus.OK);
+    }
+
     @GetMapping(value = "/error/{id}")
     @ApiOperation("日志异常详情查询")
     @PreAuthorize("@el.check()")
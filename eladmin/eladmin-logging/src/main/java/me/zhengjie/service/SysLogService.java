@@ -17,10 +17,12 @@ package me.zhengjie.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import me.zhengjie.aspect.LogDescriptor;
 import me.zhengjie.domain.SysLog;
 import me.zhengjie.domain.dto.SysLogQueryCriteria;
+import me.zhengjie.utils.ExportJob;
+import me.zhengjie.utils.ExportSheet;
 import me.zhengjie.utils.PageResult;
-import org.aspectj.lang.ProceedingJoinPoint;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
@@ -56,14 +58,29 @@ public interface SysLogService extends IService<SysLog>{
     PageResult<SysLog> queryAllByUser(SysLogQueryCriteria criteria, Page<SysLog> page);
 
     /**
-     * 保存日志数据
+     * 游标分页查询，按日志ID倒序，不使用 OFFSET
+     * @param criteria 查询条件，afterId 为上一页的 nextCursor
+     * @return /
+     */
+    PageResult<SysLog> queryAfter(SysLogQueryCriteria criteria);
+
+    /**
+     * 游标分页查询用户日志
+     * @param criteria 查询条件，afterId 为上一页的 nextCursor
+     * @return /
+     */
+    PageResult<SysLog> queryAfterByUser(SysLogQueryCriteria criteria);
+
+    /**
+     * 保存日志数据，由 SysLogWriter 异步批量写入
      * @param username 用户
      * @param browser 浏览器
      * @param ip 请求IP
-     * @param joinPoint /
+     * @param descriptor 方法的日志描述
+     * @param args 方法参数
      * @param sysLog 日志实体
      */
-    void save(String username, String browser, String ip, ProceedingJoinPoint joinPoint, SysLog sysLog);
+    void save(String username, String browser, String ip, LogDescriptor descriptor, Object[] args, SysLog sysLog);
 
     /**
      * 查询异常详情
@@ -73,12 +90,21 @@ public interface SysLogService extends IService<SysLog>{
     Object findByErrDetail(Long id);
 
     /**
-     * 导出日志
-     * @param sysLogs 待导出的数据
+     * 导出日志，按行流式读取并写出
+     * @param criteria 查询条件
+     * @param format 导出格式
      * @param response /
      * @throws IOException /
      */
-    void download(List<SysLog> sysLogs, HttpServletResponse response) throws IOException;
+    void download(SysLogQueryCriteria criteria, ExportSheet.Format format, HttpServletResponse response) throws IOException;
+
+    /**
+     * 提交异步导出任务
+     * @param criteria 查询条件
+     * @param format 导出格式
+     * @return 导出任务
+     */
+    ExportJob submitExport(SysLogQueryCriteria criteria, ExportSheet.Format format);
 
     /**
      * 删除所有错误日志
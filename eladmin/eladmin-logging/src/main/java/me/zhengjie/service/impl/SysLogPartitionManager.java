@@ -0,0 +1,139 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.zhengjie.config.properties.SysLogProperties;
+import me.zhengjie.mapper.SysLogMapper;
+import me.zhengjie.utils.CacheKey;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * sys_log 按月分区管理，分区名为 pyyyyMM，phistory 存放启用分区前的数据，最后一个分区 pmax 存放超出范围的数据
+ * 提前创建后续月份的分区，超出保留期的分区整体删除，不再逐行 delete
+ * 按 create_time 查询时 MySQL 会自动裁剪分区，只扫描相关月份
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SysLogPartitionManager {
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final String HISTORY_PARTITION = "phistory";
+    private static final Pattern MONTH_PARTITION = Pattern.compile("p\\d{6}");
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final SysLogMapper sysLogMapper;
+    private final SysLogProperties properties;
+    private final RedissonClient redissonClient;
+
+    /**
+     * 创建后续月份的分区，删除超出保留期的分区
+     * 多个节点同时启动时只由获得锁的节点维护，失败时只记录日志，不影响启动
+     */
+    public void maintain() {
+        if (!properties.getPartition().isEnabled()) {
+            return;
+        }
+        RLock lock = redissonClient.getLock(CacheKey.SYS_LOG_PARTITION_LOCK);
+        try {
+            if (!lock.tryLock(0, 10, TimeUnit.MINUTES)) {
+                log.info("sys_log partitions are being maintained by another node");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            doMaintain(properties.getPartition());
+        } catch (Exception e) {
+            log.error("Failed to maintain sys_log partitions: {}", e.getMessage(), e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void doMaintain(SysLogProperties.Partition partition) {
+        List<String> partitions = sysLogMapper.findPartitions();
+        if (!partitions.contains(MAX_PARTITION)) {
+            log.warn("sys_log is not partitioned by create_time, run sql/sys_log_partition.sql first");
+            return;
+        }
+        YearMonth now = YearMonth.now();
+        YearMonth latest = null;
+        YearMonth earliest = null;
+        YearMonth oldest = now.minusMonths(partition.getRetentionMonths());
+        for (String name : partitions) {
+            if (!MONTH_PARTITION.matcher(name).matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(name.substring(1), FORMATTER);
+            if (earliest == null || month.isBefore(earliest)) {
+                earliest = month;
+            }
+            if (month.isBefore(oldest)) {
+                sysLogMapper.dropPartition(name);
+                log.info("Dropped sys_log partition {}", name);
+            } else if (latest == null || month.isAfter(latest)) {
+                latest = month;
+            }
+        }
+        // phistory 中的数据都早于最早的月份分区，该月份超出保留期时整体删除
+        if (partitions.contains(HISTORY_PARTITION) && earliest != null && earliest.isBefore(oldest)) {
+            sysLogMapper.dropPartition(HISTORY_PARTITION);
+            log.info("Dropped sys_log partition {}", HISTORY_PARTITION);
+        }
+        // 只能从 pmax 中拆分，按时间顺序追加
+        YearMonth month = latest == null || latest.isBefore(now) ? now : latest.plusMonths(1);
+        for (; !month.isAfter(now.plusMonths(partition.getPremakeMonths())); month = month.plusMonths(1)) {
+            String name = "p" + month.format(FORMATTER);
+            sysLogMapper.addPartition(name, month.plusMonths(1).atDay(1).toString());
+            log.info("Created sys_log partition {}", name);
+        }
+    }
+
+    /**
+     * 按日志类型删除，分区表逐个分区处理，每次只删除 purgeBatchSize 条并单独提交
+     * @param logType 日志类型
+     */
+    public void deleteByLevel(String logType) {
+        List<String> partitions = properties.getPartition().isEnabled() ? sysLogMapper.findPartitions() : Collections.emptyList();
+        if (partitions.isEmpty()) {
+            partitions = Collections.singletonList(null);
+        }
+        int limit = properties.getPurgeBatchSize();
+        for (String partition : partitions) {
+            int count;
+            do {
+                count = sysLogMapper.deleteByLevelLimit(logType, partition, limit);
+            } while (count >= limit);
+        }
+    }
+}
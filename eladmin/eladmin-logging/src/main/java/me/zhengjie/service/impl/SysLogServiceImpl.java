@@ -17,28 +17,23 @@ package me.zhengjie.service.impl;
 
 import cn.hutool.core.lang.Dict;
 import com.alibaba.fastjson2.JSON;
-import com.alibaba.fastjson2.JSONArray;
 import com.alibaba.fastjson2.JSONObject;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
+import me.zhengjie.aspect.LogDescriptor;
+import me.zhengjie.config.properties.SysLogProperties;
 import me.zhengjie.domain.SysLog;
 import me.zhengjie.mapper.SysLogMapper;
 import me.zhengjie.service.SysLogService;
 import me.zhengjie.domain.dto.SysLogQueryCriteria;
 import me.zhengjie.utils.*;
-import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.scheduling.annotation.Async;
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.multipart.MultipartFile;
-import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.sql.Timestamp;
 import java.util.*;
 
 /**
@@ -50,103 +45,92 @@ import java.util.*;
 public class SysLogServiceImpl extends ServiceImpl<SysLogMapper, SysLog> implements SysLogService {
 
     private final SysLogMapper sysLogMapper;
-    // 定义敏感字段常量数组
-    private static final String[] SENSITIVE_KEYS = {"password"};
+    private final SysLogWriter sysLogWriter;
+    private final SysLogPartitionManager sysLogPartitionManager;
+    private final SysLogProperties properties;
+    private final ExportJobManager exportJobManager;
 
     @Override
     public PageResult<SysLog> queryAll(SysLogQueryCriteria criteria, Page<SysLog> page) {
+        prepareSearch(criteria);
         return PageUtil.toPage(sysLogMapper.queryAll(criteria, page));
     }
 
     @Override
     public List<SysLog> queryAll(SysLogQueryCriteria criteria) {
+        prepareSearch(criteria);
         return sysLogMapper.queryAll(criteria);
     }
 
     @Override
     public PageResult<SysLog> queryAllByUser(SysLogQueryCriteria criteria, Page<SysLog> page) {
+        prepareSearch(criteria);
         return PageUtil.toPage(sysLogMapper.queryAllByUser(criteria, page));
     }
 
-    @Async
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public void save(String username, String browser, String ip, ProceedingJoinPoint joinPoint, SysLog sysLog) {
+    public PageResult<SysLog> queryAfter(SysLogQueryCriteria criteria) {
+        long total = countForCursor(criteria);
+        return PageUtil.toCursorPage(sysLogMapper.queryAfter(criteria, criteria.getSize() + 1), criteria.getSize(), total, SysLog::getId);
+    }
+
+    @Override
+    public PageResult<SysLog> queryAfterByUser(SysLogQueryCriteria criteria) {
+        long total = countForCursor(criteria);
+        return PageUtil.toCursorPage(sysLogMapper.queryAfterByUser(criteria, criteria.getSize() + 1), criteria.getSize(), total, SysLog::getId);
+    }
+
+    /**
+     * 统计总数后再设置游标，总数不受游标影响
+     */
+    private long countForCursor(SysLogQueryCriteria criteria) {
+        prepareSearch(criteria);
+        criteria.setCursorId(null);
+        long total = Boolean.FALSE.equals(criteria.getCount()) ? -1 : sysLogMapper.countAll(criteria);
+        criteria.setCursorId(PageUtil.decodeCursor(criteria.getAfterId()));
+        return total;
+    }
+
+    /**
+     * 根据配置决定模糊查询是否走全文索引，关键字过短时 ngram 无法切分，仍使用 like
+     * 全文索引按短语匹配，去掉关键字中的双引号避免破坏短语语法
+     */
+    private void prepareSearch(SysLogQueryCriteria criteria) {
+        String blurry = criteria.getBlurry();
+        if (properties.getSearch() != SysLogProperties.Search.FULLTEXT || StringUtils.isBlank(blurry)) {
+            criteria.setFulltext(false);
+            return;
+        }
+        blurry = blurry.replace("\"", "").trim();
+        criteria.setBlurry(blurry);
+        criteria.setFulltext(blurry.length() >= properties.getFulltextMinLength());
+    }
+
+    @Override
+    public void save(String username, String browser, String ip, LogDescriptor descriptor, Object[] args, SysLog sysLog) {
         if (sysLog == null) {
             throw new IllegalArgumentException("Log 不能为 null!");
         }
 
-        // 获取方法签名
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        me.zhengjie.annotation.Log aopLog = method.getAnnotation(me.zhengjie.annotation.Log.class);
-
-        // 方法路径
-        String methodName = joinPoint.getTarget().getClass().getName() + "." + signature.getName() + "()";
-
         // 获取参数
-        JSONObject params = getParameter(method, joinPoint.getArgs());
+        JSONObject params = descriptor.toParams(args);
 
         // 填充基本信息
         sysLog.setRequestIp(ip);
-        sysLog.setAddress(StringUtils.getCityInfo(sysLog.getRequestIp()));
-        sysLog.setMethod(methodName);
+        sysLog.setMethod(descriptor.getMethodName());
         sysLog.setUsername(username);
         sysLog.setParams(JSON.toJSONString(params));
         sysLog.setBrowser(browser);
-        sysLog.setDescription(aopLog.value());
+        sysLog.setDescription(descriptor.getDescription());
 
         // 如果没有获取到用户名，尝试从参数中获取
         if(StringUtils.isBlank(sysLog.getUsername())){
             sysLog.setUsername(params.getString("username"));
         }
 
-        // 保存
-        save(sysLog);
-    }
-
-    /**
-     * 根据方法和传入的参数获取请求参数
-     */
-    private JSONObject getParameter(Method method, Object[] args) {
-        JSONObject params = new JSONObject();
-        Parameter[] parameters = method.getParameters();
-        for (int i = 0; i < parameters.length; i++) {
-            // 过滤掉 MultiPartFile
-            if (args[i] instanceof MultipartFile) {
-                continue;
-            }
-            // 过滤掉 HttpServletResponse
-            if (args[i] instanceof HttpServletResponse) {
-                continue;
-            }
-            // 过滤掉 HttpServletRequest
-            if (args[i] instanceof HttpServletRequest) {
-                continue;
-            }
-            // 将RequestBody注解修饰的参数作为请求参数
-            RequestBody requestBody = parameters[i].getAnnotation(RequestBody.class);
-            if (requestBody != null) {
-                Object json = JSON.toJSON(args[i]);
-                if (json instanceof JSONArray) {
-                    params.put("reqBodyList", json);
-                } else {
-                    params.putAll((JSONObject) json);
-                }
-            } else {
-                String key = parameters[i].getName();
-                params.put(key, args[i]);
-            }
-        }
-        // 遍历敏感字段数组并替换值
-        Set<String> keys = params.keySet();
-        for (String key : SENSITIVE_KEYS) {
-            if (keys.contains(key)) {
-                params.put(key, "******");
-            }
-        }
-        // 返回参数
-        return params;
+        // 交给写入线程批量保存，IP 归属地在写入时查询
+        sysLog.setCreateTime(new Timestamp(System.currentTimeMillis()));
+        sysLogWriter.submit(sysLog);
     }
 
     @Override
@@ -155,35 +139,46 @@ public class SysLogServiceImpl extends ServiceImpl<SysLogMapper, SysLog> impleme
         return Dict.create().set("exception", details);
     }
 
+    /**
+     * 游标需要在事务内读取，事务结束时关闭
+     */
     @Override
-    public void download(List<SysLog> sysLogs, HttpServletResponse response) throws IOException {
-        List<Map<String, Object>> list = new ArrayList<>();
-        for (SysLog sysLog : sysLogs) {
-            Map<String, Object> map = new LinkedHashMap<>();
-            map.put("用户名", sysLog.getUsername());
-            map.put("IP", sysLog.getRequestIp());
-            map.put("IP来源", sysLog.getAddress());
-            map.put("描述", sysLog.getDescription());
-            map.put("浏览器", sysLog.getBrowser());
-            map.put("请求耗时/毫秒", sysLog.getTime());
-            map.put("异常详情", sysLog.getExceptionDetail());
-            map.put("创建日期", sysLog.getCreateTime());
-            list.add(map);
+    @Transactional(readOnly = true)
+    public void download(SysLogQueryCriteria criteria, ExportSheet.Format format, HttpServletResponse response) throws IOException {
+        prepareSearch(criteria);
+        try (Cursor<SysLog> cursor = sysLogMapper.queryCursor(criteria)) {
+            FileUtil.download(cursor, exportSheet(), format, response);
         }
-        FileUtil.downloadExcel(list, response);
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
+    public ExportJob submitExport(SysLogQueryCriteria criteria, ExportSheet.Format format) {
+        prepareSearch(criteria);
+        String name = "ERROR".equals(criteria.getLogType()) ? "错误日志" : "操作日志";
+        return exportJobManager.submit(name, exportSheet(), format, () -> sysLogMapper.queryCursor(criteria));
+    }
+
+    private ExportSheet<SysLog> exportSheet() {
+        return ExportSheet.<SysLog>create()
+                .column("用户名", SysLog::getUsername)
+                .column("IP", SysLog::getRequestIp)
+                .column("IP来源", SysLog::getAddress)
+                .column("描述", SysLog::getDescription)
+                .column("浏览器", SysLog::getBrowser)
+                .column("请求耗时/毫秒", SysLog::getTime)
+                .column("异常详情", SysLog::getExceptionDetail)
+                .column("创建日期", SysLog::getCreateTime);
+    }
+
+    @Override
     public void delAllByError() {
-        // 删除 ERROR 级别的日志
-        sysLogMapper.deleteByLevel("ERROR");
+        // 删除 ERROR 级别的日志，分批提交
+        sysLogPartitionManager.deleteByLevel("ERROR");
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public void delAllByInfo() {
-        // 删除 INFO 级别的日志
-        sysLogMapper.deleteByLevel("INFO");
+        // 删除 INFO 级别的日志，分批提交
+        sysLogPartitionManager.deleteByLevel("INFO");
     }
 }
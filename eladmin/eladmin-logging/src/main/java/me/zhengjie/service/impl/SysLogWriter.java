@@ -0,0 +1,195 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import me.zhengjie.base.MetricsProvider;
+import me.zhengjie.config.properties.SysLogProperties;
+import me.zhengjie.domain.SysLog;
+import me.zhengjie.mapper.SysLogMapper;
+import me.zhengjie.utils.StringUtils;
+import org.springframework.stereotype.Component;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 操作日志异步批量写入
+ * 请求线程只负责入队，独立的写入线程按数量或时间批量 insert，不占用公共线程池
+ * IP 归属地查询也在写入线程中完成
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Slf4j
+@Component
+public class SysLogWriter implements MetricsProvider {
+
+    private static final String ERROR = "ERROR";
+    /** sample 策略开始采样的积压比例 */
+    private static final double HIGH_WATER = 0.8;
+
+    private final SysLogMapper sysLogMapper;
+    private final SysLogProperties properties;
+    private final BlockingQueue<SysLog> queue;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong sampled = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong counter = new AtomicLong();
+
+    public SysLogWriter(SysLogMapper sysLogMapper, SysLogProperties properties) {
+        this.sysLogMapper = sysLogMapper;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.worker = new Thread(this::run, "el-log-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 提交日志，按 sys-log.overflow 处理队列积压
+     * @param sysLog 日志
+     * @return 是否已入队
+     */
+    public boolean submit(SysLog sysLog) {
+        boolean offered;
+        switch (properties.getOverflow()) {
+            case BLOCK:
+                try {
+                    offered = queue.offer(sysLog, properties.getBlockTimeout(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    offered = false;
+                }
+                break;
+            case SAMPLE:
+                if (!ERROR.equals(sysLog.getLogType()) && queue.size() >= properties.getCapacity() * HIGH_WATER
+                        && counter.incrementAndGet() % properties.getSampleRate() != 0) {
+                    sampled.incrementAndGet();
+                    return false;
+                }
+                offered = queue.offer(sysLog);
+                break;
+            default:
+                offered = queue.offer(sysLog);
+        }
+        if (offered) {
+            accepted.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+        return offered;
+    }
+
+    private void run() {
+        List<SysLog> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                long deadline = System.currentTimeMillis() + properties.getFlushInterval();
+                while (batch.size() < properties.getBatchSize()) {
+                    long wait = deadline - System.currentTimeMillis();
+                    SysLog sysLog = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : null;
+                    if (sysLog == null) {
+                        break;
+                    }
+                    batch.add(sysLog);
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // 被中断时写完剩余数据后退出
+                running = false;
+                queue.drainTo(batch);
+            }
+            flush(batch);
+        }
+    }
+
+    private void flush(List<SysLog> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            for (SysLog sysLog : batch) {
+                sysLog.setAddress(StringUtils.getCityInfo(sysLog.getRequestIp()));
+            }
+            sysLogMapper.insertBatch(batch);
+            written.addAndGet(batch.size());
+        } catch (Exception e) {
+            log.warn("Failed to write {} sys logs in batch, retrying one by one: {}", batch.size(), e.getMessage());
+            insertEach(batch);
+        } finally {
+            batches.incrementAndGet();
+            batch.clear();
+        }
+    }
+
+    /**
+     * 批量写入失败时逐条写入，只丢弃写入失败的日志
+     */
+    private void insertEach(List<SysLog> batch) {
+        for (SysLog sysLog : batch) {
+            try {
+                sysLogMapper.insertBatch(Collections.singletonList(sysLog));
+                written.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.error("Failed to write sys log, username: {}, method: {}, error: {}",
+                        sysLog.getUsername(), sysLog.getMethod(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 应用关闭时等待写入线程写完队列中的数据
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(properties.getFlushInterval() + TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "sysLogWriter";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(9);
+        metrics.put("overflow", properties.getOverflow());
+        metrics.put("queueSize", queue.size());
+        metrics.put("capacity", properties.getCapacity());
+        metrics.put("accepted", accepted.get());
+        metrics.put("dropped", dropped.get());
+        metrics.put("sampled", sampled.get());
+        metrics.put("written", written.get());
+        metrics.put("failed", failed.get());
+        metrics.put("batches", batches.get());
+        return metrics;
+    }
+}
@@ -35,4 +35,8 @@ public interface QuartzLogMapper extends BaseMapper<QuartzLog> {
     IPage<QuartzLog> findAll(@Param("criteria") QuartzJobQueryCriteria criteria, Page<Object> page);
 
     List<QuartzLog> findAll(@Param("criteria") QuartzJobQueryCriteria criteria);
+
+    List<QuartzLog> findAfter(@Param("criteria") QuartzJobQueryCriteria criteria, @Param("limit") int limit);
+
+    Long countAll(@Param("criteria") QuartzJobQueryCriteria criteria);
 }
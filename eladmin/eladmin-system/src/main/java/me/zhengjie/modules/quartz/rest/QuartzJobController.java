@@ -81,6 +81,13 @@ public class QuartzJobController {
         return new ResponseEntity<>(quartzJobService.queryAllLog(criteria,page), HttpStatus.OK);
     }
 
+    @ApiOperation("查询任务执行日志：游标分页")
+    @GetMapping(value = "/logs/cursor")
+    @PreAuthorize("@el.check('timing:list')")
+    public ResponseEntity<PageResult<QuartzLog>> queryQuartzJobLogAfter(QuartzJobQueryCriteria criteria){
+        return new ResponseEntity<>(quartzJobService.queryLogAfter(criteria), HttpStatus.OK);
+    }
+
     @Log("新增定时任务")
     @ApiOperation("新增定时任务")
     @PostMapping
@@ -58,6 +58,13 @@ public interface QuartzJobService extends IService<QuartzJob> {
      */
     PageResult<QuartzLog> queryAllLog(QuartzJobQueryCriteria criteria, Page<Object> page);
 
+    /**
+     * 游标分页查询日志，按日志ID倒序，不使用 OFFSET
+     * @param criteria 条件，afterId 为上一页的 nextCursor
+     * @return /
+     */
+    PageResult<QuartzLog> queryLogAfter(QuartzJobQueryCriteria criteria);
+
     /**
      * 查询全部
      * @param criteria 条件
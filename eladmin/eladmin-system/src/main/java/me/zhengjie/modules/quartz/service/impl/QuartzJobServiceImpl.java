@@ -59,6 +59,16 @@ public class QuartzJobServiceImpl extends ServiceImpl<QuartzJobMapper, QuartzJob
         return PageUtil.toPage(quartzLogMapper.findAll(criteria, page));
     }
 
+    @Override
+    public PageResult<QuartzLog> queryLogAfter(QuartzJobQueryCriteria criteria) {
+        // 统计总数后再设置游标，总数不受游标影响
+        criteria.setCursorId(null);
+        long total = Boolean.FALSE.equals(criteria.getCount()) ? -1 : quartzLogMapper.countAll(criteria);
+        criteria.setCursorId(PageUtil.decodeCursor(criteria.getAfterId()));
+        List<QuartzLog> logs = quartzLogMapper.findAfter(criteria, criteria.getSize() + 1);
+        return PageUtil.toCursorPage(logs, criteria.getSize(), total, QuartzLog::getId);
+    }
+
     @Override
     public List<QuartzJob> queryAll(QuartzJobQueryCriteria criteria) {
         return quartzJobMapper.findAll(criteria);
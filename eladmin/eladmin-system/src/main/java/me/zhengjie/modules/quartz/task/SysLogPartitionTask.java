@@ -0,0 +1,36 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.modules.quartz.task;
+
+import lombok.RequiredArgsConstructor;
+import me.zhengjie.service.impl.SysLogPartitionManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * 日志分区维护，创建后续月份的分区并删除过期分区
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Service
+@RequiredArgsConstructor
+public class SysLogPartitionTask {
+
+    private final SysLogPartitionManager sysLogPartitionManager;
+
+    public void run() {
+        sysLogPartitionManager.maintain();
+    }
+}
@@ -70,6 +70,16 @@ public class SecurityProperties {
      */
     private Long renew;
 
+    /**
+     * 已校验Token的本地缓存数量，小于等于0时不缓存
+     */
+    private Long tokenCacheSize = 10000L;
+
+    /**
+     * 已校验Token的本地缓存时间，单位毫秒
+     */
+    private Long tokenCacheTtl = 300000L;
+
     public String getTokenStartWith() {
         return tokenStartWith + " ";
     }
@@ -0,0 +1,106 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.modules.security.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import me.zhengjie.base.MetricsProvider;
+import me.zhengjie.modules.security.config.SecurityProperties;
+import me.zhengjie.utils.TokenContext;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 已校验签名的 Token 本地缓存，同一个 Token 在有效期内不再重复校验签名
+ * Token 是否在线仍以 Redis 中的在线用户为准，所以这里只需要在本机失效即可
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Component
+public class TokenCache implements MetricsProvider {
+
+    private final Cache<String, TokenContext> cache;
+
+    public TokenCache(SecurityProperties properties) {
+        Long size = properties.getTokenCacheSize();
+        if (size == null || size <= 0) {
+            this.cache = null;
+        } else {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(size)
+                    .expireAfterWrite(properties.getTokenCacheTtl(), TimeUnit.MILLISECONDS)
+                    .recordStats()
+                    .build();
+        }
+    }
+
+    /**
+     * 获取已校验的 Token，不存在时通过 loader 校验并缓存
+     * @param token /
+     * @param loader 校验签名并解析
+     * @return /
+     */
+    public TokenContext get(String token, Function<String, TokenContext> loader) {
+        if (cache == null) {
+            return loader.apply(token);
+        }
+        return cache.get(token, loader);
+    }
+
+    /**
+     * 失效指定 Token
+     * @param token /
+     */
+    public void invalidate(String token) {
+        if (cache != null && token != null) {
+            cache.invalidate(token);
+        }
+    }
+
+    /**
+     * 失效指定用户的所有 Token
+     * @param username 用户名
+     */
+    public void invalidateUsername(String username) {
+        if (cache != null && username != null) {
+            cache.asMap().values().removeIf(context -> username.equals(context.getUsername()));
+        }
+    }
+
+    @Override
+    public String getMetricsName() {
+        return "tokenCache";
+    }
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(6);
+        metrics.put("enabled", cache != null);
+        if (cache != null) {
+            CacheStats stats = cache.stats();
+            metrics.put("size", cache.estimatedSize());
+            metrics.put("hit", stats.hitCount());
+            metrics.put("miss", stats.missCount());
+            metrics.put("eviction", stats.evictionCount());
+            metrics.put("hitRate", stats.hitRate());
+        }
+        return metrics;
+    }
+}
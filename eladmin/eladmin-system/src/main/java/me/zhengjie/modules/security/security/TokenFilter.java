@@ -18,8 +18,7 @@ package me.zhengjie.modules.security.security;
 import cn.hutool.core.util.StrUtil;
 import lombok.extern.slf4j.Slf4j;
 import me.zhengjie.modules.security.config.SecurityProperties;
-import me.zhengjie.modules.security.service.dto.OnlineUserDto;
-import me.zhengjie.modules.security.service.OnlineUserService;
+import me.zhengjie.utils.TokenContext;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
@@ -39,16 +38,13 @@ public class TokenFilter extends GenericFilterBean {
 
     private final TokenProvider tokenProvider;
     private final SecurityProperties properties;
-    private final OnlineUserService onlineUserService;
 
     /**
      * @param tokenProvider     Token
      * @param properties        JWT
-     * @param onlineUserService 用户在线
      */
-    public TokenFilter(TokenProvider tokenProvider, SecurityProperties properties, OnlineUserService onlineUserService) {
+    public TokenFilter(TokenProvider tokenProvider, SecurityProperties properties) {
         this.properties = properties;
-        this.onlineUserService = onlineUserService;
         this.tokenProvider = tokenProvider;
     }
 
@@ -58,15 +54,13 @@ public class TokenFilter extends GenericFilterBean {
         String token = resolveToken(httpServletRequest);
         // 对于 Token 为空的不需要去查 Redis
         if(StrUtil.isNotBlank(token)){
-            // 获取用户Token的Key
-            String loginKey = tokenProvider.loginKey(token);
-            OnlineUserDto onlineUserDto = onlineUserService.getOne(loginKey);
-            // 判断用户在线信息是否为空
-            if (onlineUserDto != null) {
-                // Token 续期判断
-                tokenProvider.checkRenewal(token);
+            // 校验并解析Token，当前请求内后续环节直接复用解析结果
+            TokenContext tokenContext = tokenProvider.parseToken(token);
+            // 判断用户是否在线，同时完成 Token 续期，只需要一次 Redis 往返
+            if (tokenProvider.checkSession(tokenContext)) {
+                TokenContext.bind(httpServletRequest, tokenContext);
                 // 获取认证信息，设置上下文
-                Authentication authentication = tokenProvider.getAuthentication(token);
+                Authentication authentication = tokenProvider.getAuthentication(tokenContext);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
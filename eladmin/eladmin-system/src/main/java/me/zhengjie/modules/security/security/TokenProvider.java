@@ -15,8 +15,6 @@
  */
 package me.zhengjie.modules.security.security;
 
-import cn.hutool.core.date.DateField;
-import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.util.IdUtil;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
@@ -26,6 +24,7 @@ import lombok.extern.slf4j.Slf4j;
 import me.zhengjie.modules.security.config.SecurityProperties;
 import me.zhengjie.modules.security.service.dto.JwtUserDto;
 import me.zhengjie.utils.RedisUtils;
+import me.zhengjie.utils.TokenContext;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -34,7 +33,6 @@ import org.springframework.stereotype.Component;
 import javax.servlet.http.HttpServletRequest;
 import java.security.Key;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author /
@@ -48,6 +46,7 @@ public class TokenProvider implements InitializingBean {
     private JwtParser jwtParser;
     private final RedisUtils redisUtils;
     private final SecurityProperties properties;
+    private final TokenCache tokenCache;
     public static final String AUTHORITIES_UUID_KEY = "uid";
     public static final String AUTHORITIES_UID_KEY = "userId";
 
@@ -93,9 +92,18 @@ public class TokenProvider implements InitializingBean {
      * @return /
      */
     Authentication getAuthentication(String token) {
-        Claims claims = getClaims(token);
-        User principal = new User(claims.getSubject(), "******", new ArrayList<>());
-        return new UsernamePasswordAuthenticationToken(principal, token, new ArrayList<>());
+        return getAuthentication(resolve(token));
+    }
+
+    /**
+     * 依据已解析的Token 获取鉴权信息
+     *
+     * @param context /
+     * @return /
+     */
+    Authentication getAuthentication(TokenContext context) {
+        User principal = new User(context.getUsername(), "******", new ArrayList<>());
+        return new UsernamePasswordAuthenticationToken(principal, context.getToken(), new ArrayList<>());
     }
 
     public Claims getClaims(String token) {
@@ -104,21 +112,72 @@ public class TokenProvider implements InitializingBean {
                 .getBody();
     }
 
+    /**
+     * 校验签名并解析Token，同一个请求内只需要调用一次
+     * 已校验过的Token会在本地缓存一段时间，期间不再重复校验签名
+     * @param token /
+     * @return /
+     */
+    public TokenContext parseToken(String token) {
+        return tokenCache.get(token, this::verifyToken);
+    }
+
+    /**
+     * 失效本地缓存的Token
+     * @param token /
+     */
+    public void invalidate(String token) {
+        tokenCache.invalidate(token);
+    }
+
+    /**
+     * 失效本地缓存的用户Token
+     * @param username 用户名
+     */
+    public void invalidateUsername(String username) {
+        tokenCache.invalidateUsername(username);
+    }
+
+    private TokenContext verifyToken(String token) {
+        Claims claims = getClaims(token);
+        Number userId = claims.get(AUTHORITIES_UID_KEY, Number.class);
+        return new TokenContext(token, claims.getSubject(), claims.get(AUTHORITIES_UUID_KEY, String.class),
+                userId == null ? null : userId.longValue());
+    }
+
+    /**
+     * 优先复用当前请求已解析的Token，不存在时再解析
+     * @param token /
+     * @return /
+     */
+    public TokenContext resolve(String token) {
+        TokenContext context = TokenContext.current(token);
+        return context != null ? context : parseToken(token);
+    }
+
     /**
      * @param token 需要检查的token
      */
     public void checkRenewal(String token) {
-        // 判断是否续期token,计算token的过期时间
-        String loginKey = loginKey(token);
-        long time = redisUtils.getExpire(loginKey) * 1000;
-        Date expireDate = DateUtil.offset(new Date(), DateField.MILLISECOND, (int) time);
-        // 判断当前时间与过期时间的时间差
-        long differ = expireDate.getTime() - System.currentTimeMillis();
-        // 如果在续期检查的范围内，则续期
-        if (differ <= properties.getDetect()) {
-            long renew = time + properties.getRenew();
-            redisUtils.expire(loginKey, renew, TimeUnit.MILLISECONDS);
-        }
+        checkRenewal(resolve(token));
+    }
+
+    /**
+     * @param context 已解析的token
+     */
+    public void checkRenewal(TokenContext context) {
+        checkSession(context);
+    }
+
+    /**
+     * 校验会话是否在线，并在即将过期时续期
+     * 使用 Lua 脚本完成，不读取在线用户信息，只需要一次 Redis 往返
+     * @param context 已解析的token
+     * @return 是否在线
+     */
+    public boolean checkSession(TokenContext context) {
+        long ttl = redisUtils.renewIfExpiring(loginKey(context), properties.getDetect(), properties.getRenew());
+        return ttl != RedisUtils.KEY_NOT_EXISTS;
     }
 
     public String getToken(HttpServletRequest request) {
@@ -135,8 +194,16 @@ public class TokenProvider implements InitializingBean {
      * @return key
      */
     public String loginKey(String token) {
-        Claims claims = getClaims(token);
-        return properties.getOnlineKey() + claims.getSubject() + ":" + getId(token);
+        return loginKey(resolve(token));
+    }
+
+    /**
+     * 获取登录用户RedisKey
+     * @param context 已解析的token
+     * @return key
+     */
+    public String loginKey(TokenContext context) {
+        return properties.getOnlineKey() + context.getUsername() + ":" + context.getUid();
     }
 
     /**
@@ -145,7 +212,6 @@ public class TokenProvider implements InitializingBean {
      * @return /
      */
     public String getId(String token) {
-        Claims claims = getClaims(token);
-        return claims.get(AUTHORITIES_UUID_KEY, String.class);
+        return resolve(token).getUid();
     }
 }
@@ -53,7 +53,8 @@ public class OnlineUserService {
     public void save(JwtUserDto jwtUserDto, String token, HttpServletRequest request){
         String dept = jwtUserDto.getUser().getDept().getName();
         String ip = StringUtils.getIp(request);
-        String id = tokenProvider.getId(token);
+        TokenContext tokenContext = tokenProvider.resolve(token);
+        String id = tokenContext.getUid();
         String browser = StringUtils.getBrowser(request);
         String address = StringUtils.getCityInfo(ip);
         OnlineUserDto onlineUserDto = null;
@@ -62,7 +63,7 @@ public class OnlineUserService {
         } catch (Exception e) {
             log.error(e.getMessage(),e);
         }
-        String loginKey = tokenProvider.loginKey(token);
+        String loginKey = tokenProvider.loginKey(tokenContext);
         redisUtils.set(loginKey, onlineUserDto, properties.getTokenValidityInSeconds(), TimeUnit.MILLISECONDS);
     }
 
@@ -106,6 +107,7 @@ public class OnlineUserService {
     public void logout(String token) {
         String loginKey = tokenProvider.loginKey(token);
         redisUtils.del(loginKey);
+        tokenProvider.invalidate(token);
     }
 
     /**
@@ -145,5 +147,6 @@ public class OnlineUserService {
     public void kickOutForUsername(String username) {
         String loginKey = properties.getOnlineKey() + username + "*";
         redisUtils.scanDel(loginKey);
+        tokenProvider.invalidateUsername(username);
     }
 }
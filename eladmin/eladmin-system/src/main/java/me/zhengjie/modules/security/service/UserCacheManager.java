@@ -24,6 +24,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import javax.annotation.Resource;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @author Zheng Jie
@@ -82,4 +85,17 @@ public class UserCacheManager {
             redisUtils.del(LoginProperties.cacheKey + userName);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量清理用户缓存信息，一次请求完成
+     * 角色、菜单等变更影响大量用户时使用
+     * @param userNames 用户名
+     */
+    public void cleanUserCaches(Collection<String> userNames) {
+        List<String> keys = userNames.stream()
+                .filter(StringUtils::isNotEmpty)
+                .map(userName -> LoginProperties.cacheKey + StringUtils.lowerCase(userName))
+                .collect(Collectors.toList());
+        redisUtils.unlink(keys);
+    }
+}
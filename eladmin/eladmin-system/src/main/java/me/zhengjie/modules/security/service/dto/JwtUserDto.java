@@ -21,6 +21,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import me.zhengjie.modules.system.domain.User;
+import me.zhengjie.utils.DataScope;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.List;
 import java.util.Set;
@@ -32,7 +33,7 @@ import java.util.stream.Collectors;
  */
 @Getter
 @AllArgsConstructor
-public class JwtUserDto implements UserDetails {
+public class JwtUserDto implements UserDetails, DataScope.Provider {
 
     @ApiModelProperty(value = "用户")
     private final User user;
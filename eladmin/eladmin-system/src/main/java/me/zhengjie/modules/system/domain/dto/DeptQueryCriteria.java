@@ -30,6 +30,9 @@ public class DeptQueryCriteria{
     @ApiModelProperty(value = "部门id集合")
     private List<Long> ids;
 
+    @ApiModelProperty(value = "部门id较多时的 JSON 数组形式", hidden = true)
+    private String idsJson;
+
     @ApiModelProperty(value = "部门名称")
     private String name;
 
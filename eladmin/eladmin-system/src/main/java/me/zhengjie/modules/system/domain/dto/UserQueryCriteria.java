@@ -36,6 +36,9 @@ public class UserQueryCriteria implements Serializable {
     @ApiModelProperty(value = "多个ID")
     private Set<Long> deptIds = new HashSet<>();
 
+    @ApiModelProperty(value = "部门ID较多时的 JSON 数组形式", hidden = true)
+    private String deptIdsJson;
+
     @ApiModelProperty(value = "模糊查询")
     private String blurry;
 
@@ -56,4 +59,13 @@ public class UserQueryCriteria implements Serializable {
 
     @ApiModelProperty(value = "偏移量", hidden = true)
     private long offset;
+
+    @ApiModelProperty(value = "游标分页：上一页返回的 nextCursor，第一页不传")
+    private String afterId;
+
+    @ApiModelProperty(value = "游标分页：是否统计总数")
+    private Boolean count = true;
+
+    @ApiModelProperty(value = "游标解析后的用户ID", hidden = true)
+    private Long cursorId;
 }
@@ -18,6 +18,8 @@ package me.zhengjie.modules.system.mapper;
 import me.zhengjie.modules.system.domain.Dept;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -31,4 +33,6 @@ public interface RoleDeptMapper {
     void deleteByRoleId(@Param("roleId") Long roleId);
 
     void deleteByRoleIds(@Param("roleIds") Set<Long> roleIds);
+
+    List<Map<String, Object>> findAll();
 }
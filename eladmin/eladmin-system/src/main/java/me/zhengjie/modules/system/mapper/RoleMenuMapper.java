@@ -18,6 +18,8 @@ package me.zhengjie.modules.system.mapper;
 import me.zhengjie.modules.system.domain.Menu;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,4 +35,6 @@ public interface RoleMenuMapper {
     void deleteByRoleIds(@Param("roleIds") Set<Long> roleIds);
 
     void deleteByMenuId(@Param("menuId") Long menuId);
+
+    List<Map<String, Object>> findAll();
 }
@@ -23,6 +23,7 @@ import me.zhengjie.modules.system.domain.dto.UserQueryCriteria;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -40,6 +41,8 @@ public interface UserMapper extends BaseMapper<User> {
 
     IPage<User> findAll(@Param("criteria") UserQueryCriteria criteria, Page<Object> page);
 
+    Cursor<User> findCursor(@Param("criteria") UserQueryCriteria criteria);
+
     User findByUsername(@Param("username") String username);
 
     User findByEmail(@Param("email") String email);
@@ -54,8 +57,6 @@ public interface UserMapper extends BaseMapper<User> {
 
     List<User> findByRoleId(@Param("roleId") Long roleId);
 
-    List<User> findByRoleDeptId(@Param("deptId") Long deptId);
-
     List<User> findByMenuId(@Param("menuId") Long menuId);
 
     int countByJobs(@Param("jobIds") Set<Long> jobIds);
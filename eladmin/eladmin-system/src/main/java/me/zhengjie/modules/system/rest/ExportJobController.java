@@ -0,0 +1,58 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.modules.system.rest;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.RequiredArgsConstructor;
+import me.zhengjie.utils.ExportJob;
+import me.zhengjie.utils.ExportJobManager;
+import me.zhengjie.utils.ExportSheet;
+import me.zhengjie.utils.FileUtil;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 异步导出任务的进度查询与文件下载，只能访问自己提交的任务
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@RestController
+@RequiredArgsConstructor
+@Api(tags = "系统：导出任务")
+@RequestMapping("/api/export")
+public class ExportJobController {
+
+    private final ExportJobManager exportJobManager;
+
+    @ApiOperation("查询导出任务")
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<ExportJob> queryExportJob(@PathVariable String id){
+        return new ResponseEntity<>(exportJobManager.get(id), HttpStatus.OK);
+    }
+
+    @ApiOperation("下载导出文件，支持断点续传")
+    @GetMapping(value = "/{id}/file")
+    public void downloadExportFile(HttpServletRequest request, HttpServletResponse response, @PathVariable String id) throws IOException {
+        ExportJob job = exportJobManager.get(id);
+        ExportSheet.Format format = ExportSheet.Format.of(job.getFormat());
+        FileUtil.downloadRange(request, response, exportJobManager.getFile(job), job.getFileName(), format.getContentType());
+    }
+}
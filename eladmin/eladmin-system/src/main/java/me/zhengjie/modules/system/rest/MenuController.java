@@ -60,9 +60,7 @@ public class MenuController {
     @GetMapping(value = "/build")
     @ApiOperation("获取前端所需菜单")
     public ResponseEntity<List<MenuVo>> buildMenus(){
-        List<Menu> menuList = menuService.findByUser(SecurityUtils.getCurrentUserId());
-        List<Menu> menus = menuService.buildTree(menuList);
-        return new ResponseEntity<>(menuService.buildMenus(menus),HttpStatus.OK);
+        return new ResponseEntity<>(menuService.buildMenusByUser(SecurityUtils.getCurrentUserId()),HttpStatus.OK);
     }
 
     @ApiOperation("返回全部的菜单")
@@ -42,4 +42,11 @@ public class MonitorController {
     public ResponseEntity<Object> queryMonitor(){
         return new ResponseEntity<>(serverService.getServers(),HttpStatus.OK);
     }
+
+    @GetMapping(value = "/metrics")
+    @ApiOperation("查询应用运行指标")
+    @PreAuthorize("@el.check('monitor:list')")
+    public ResponseEntity<Object> queryMetrics(){
+        return new ResponseEntity<>(serverService.getMetrics(),HttpStatus.OK);
+    }
 }
@@ -69,8 +69,24 @@ public class UserController {
     @ApiOperation("导出用户数据")
     @GetMapping(value = "/download")
     @PreAuthorize("@el.check('user:list')")
-    public void exportUser(HttpServletResponse response, UserQueryCriteria criteria) throws IOException {
-        userService.download(userService.queryAll(criteria), response);
+    public void exportUser(HttpServletResponse response, UserQueryCriteria criteria,
+                           @RequestParam(required = false) String format) throws IOException {
+        if (applyDataScope(criteria)) {
+            userService.download(criteria, ExportSheet.Format.of(format), response);
+        } else {
+            userService.download(Collections.<User>emptyList(), ExportSheet.Format.of(format), response);
+        }
+    }
+
+    @ApiOperation("异步导出用户数据，返回导出任务")
+    @PostMapping(value = "/export")
+    @PreAuthorize("@el.check('user:list')")
+    public ResponseEntity<ExportJob> submitExportUser(UserQueryCriteria criteria,
+                                                      @RequestParam(required = false) String format){
+        if (!applyDataScope(criteria)) {
+            throw new BadRequestException("没有可导出的数据");
+        }
+        return new ResponseEntity<>(userService.submitExport(criteria, ExportSheet.Format.of(format)), HttpStatus.CREATED);
     }
 
     @ApiOperation("查询用户")
@@ -78,6 +94,28 @@ public class UserController {
     @PreAuthorize("@el.check('user:list')")
     public ResponseEntity<PageResult<User>> queryUser(UserQueryCriteria criteria){
         Page<Object> page = new Page<>(criteria.getPage(), criteria.getSize());
+        if (applyDataScope(criteria)) {
+            return new ResponseEntity<>(userService.queryAll(criteria,page),HttpStatus.OK);
+        }
+        return new ResponseEntity<>(PageUtil.noData(),HttpStatus.OK);
+    }
+
+    @ApiOperation("查询用户：游标分页")
+    @GetMapping(value = "/cursor")
+    @PreAuthorize("@el.check('user:list')")
+    public ResponseEntity<PageResult<User>> queryUserAfter(UserQueryCriteria criteria){
+        if (applyDataScope(criteria)) {
+            return new ResponseEntity<>(userService.queryAfter(criteria),HttpStatus.OK);
+        }
+        return new ResponseEntity<>(PageUtil.noData(),HttpStatus.OK);
+    }
+
+    /**
+     * 根据部门与数据权限设置查询的部门范围
+     * @param criteria 查询条件
+     * @return 是否有可查询的数据
+     */
+    private boolean applyDataScope(UserQueryCriteria criteria) {
         if (!ObjectUtils.isEmpty(criteria.getDeptId())) {
             criteria.getDeptIds().add(criteria.getDeptId());
             // 先查找是否存在子节点
@@ -91,15 +129,13 @@ public class UserController {
         if (!CollectionUtils.isEmpty(criteria.getDeptIds()) && !CollectionUtils.isEmpty(dataScopes)){
             // 取交集
             criteria.getDeptIds().retainAll(dataScopes);
-            if(!CollectionUtil.isEmpty(criteria.getDeptIds())){
-                return new ResponseEntity<>(userService.queryAll(criteria,page),HttpStatus.OK);
-            }
-        } else {
-            // 否则取并集
-            criteria.getDeptIds().addAll(dataScopes);
-            return new ResponseEntity<>(userService.queryAll(criteria,page),HttpStatus.OK);
+            criteria.setDeptIdsJson(dataService.compact(criteria.getDeptIds()));
+            return !CollectionUtil.isEmpty(criteria.getDeptIds());
         }
-        return new ResponseEntity<>(PageUtil.noData(),HttpStatus.OK);
+        // 否则取并集
+        criteria.getDeptIds().addAll(dataScopes);
+        criteria.setDeptIdsJson(dataService.compact(criteria.getDeptIds()));
+        return true;
     }
 
     @Log("新增用户")
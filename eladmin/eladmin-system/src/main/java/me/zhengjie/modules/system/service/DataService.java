@@ -16,6 +16,7 @@
 package me.zhengjie.modules.system.service;
 
 import me.zhengjie.modules.system.domain.User;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -31,4 +32,11 @@ public interface DataService {
      * @return /
      */
     List<Long> getDeptIds(User user);
+
+    /**
+     * 部门ID较多时转换为 JSON 数组，供 Mapper 通过 JSON_TABLE 关联
+     * @param deptIds 部门ID
+     * @return 未超过 data-scope.compact-threshold 时返回 null，继续使用 in 列表
+     */
+    String compact(Collection<Long> deptIds);
 }
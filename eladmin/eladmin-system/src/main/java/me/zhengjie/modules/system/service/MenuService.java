@@ -116,4 +116,11 @@ public interface MenuService extends IService<Menu> {
      * @return /
      */
     List<Menu> findByUser(Long currentUserId);
+
+    /**
+     * 根据用户的角色获取前端路由，相同角色组合的用户共享结果
+     * @param userId 用户ID
+     * @return /
+     */
+    List<MenuVo> buildMenusByUser(Long userId);
 }
@@ -28,4 +28,10 @@ public interface MonitorService {
     * @return Map<String,Object>
     */
     Map<String,Object> getServers();
+
+    /**
+     * 查询应用运行指标，如缓存命中率等
+     * @return Map<String,Object>
+     */
+    Map<String,Object> getMetrics();
 }
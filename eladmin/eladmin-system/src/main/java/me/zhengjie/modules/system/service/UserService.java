@@ -19,6 +19,8 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import me.zhengjie.modules.system.domain.User;
 import me.zhengjie.modules.system.domain.dto.UserQueryCriteria;
+import me.zhengjie.utils.ExportJob;
+import me.zhengjie.utils.ExportSheet;
 import me.zhengjie.utils.PageResult;
 import org.springframework.web.multipart.MultipartFile;
 import javax.servlet.http.HttpServletResponse;
@@ -105,6 +107,14 @@ public interface UserService extends IService<User> {
      */
     PageResult<User> queryAll(UserQueryCriteria criteria, Page<Object> page);
 
+    /**
+     * 游标分页查询，按用户ID倒序，不使用 OFFSET
+     *
+     * @param criteria 条件，afterId 为上一页的 nextCursor
+     * @return /
+     */
+    PageResult<User> queryAfter(UserQueryCriteria criteria);
+
     /**
      * 查询全部不分页
      *
@@ -113,13 +123,31 @@ public interface UserService extends IService<User> {
      */
     List<User> queryAll(UserQueryCriteria criteria);
 
+    /**
+     * 导出数据，按行流式读取并写出
+     * @param criteria 查询条件
+     * @param format 导出格式
+     * @param response /
+     * @throws IOException /
+     */
+    void download(UserQueryCriteria criteria, ExportSheet.Format format, HttpServletResponse response) throws IOException;
+
     /**
      * 导出数据
-     * @param queryAll 待导出的数据
+     * @param users 待导出的数据
+     * @param format 导出格式
      * @param response /
      * @throws IOException /
      */
-    void download(List<User> queryAll, HttpServletResponse response) throws IOException;
+    void download(List<User> users, ExportSheet.Format format, HttpServletResponse response) throws IOException;
+
+    /**
+     * 提交异步导出任务
+     * @param criteria 查询条件，需已设置数据权限
+     * @param format 导出格式
+     * @return 导出任务
+     */
+    ExportJob submitExport(UserQueryCriteria criteria, ExportSheet.Format format);
 
     /**
      * 用户自助修改资料
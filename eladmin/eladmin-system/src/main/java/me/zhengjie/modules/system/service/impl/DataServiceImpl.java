@@ -15,20 +15,16 @@
  */
 package me.zhengjie.modules.system.service.impl;
 
-import cn.hutool.core.collection.CollUtil;
+import com.alibaba.fastjson2.JSON;
 import lombok.RequiredArgsConstructor;
-import me.zhengjie.modules.system.domain.Dept;
+import me.zhengjie.config.properties.DataScopeProperties;
 import me.zhengjie.modules.system.domain.Role;
 import me.zhengjie.modules.system.domain.User;
 import me.zhengjie.modules.system.service.DataService;
-import me.zhengjie.modules.system.service.DeptService;
 import me.zhengjie.modules.system.service.RoleService;
-import me.zhengjie.utils.CacheKey;
-import me.zhengjie.utils.RedisUtils;
 import me.zhengjie.utils.enums.DataScopeEnum;
 import org.springframework.stereotype.Service;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author Zheng Jie
@@ -39,58 +35,49 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class DataServiceImpl implements DataService {
 
-    private final RedisUtils redisUtils;
     private final RoleService roleService;
-    private final DeptService deptService;
+    private final DeptTreeIndex deptTreeIndex;
+    private final DataScopeProperties properties;
 
     /**
-     * 用户角色和用户部门改变时需清理缓存
+     * 自定义数据权限由部门树快照中各角色的 BitSet 合并得到，不再查询数据库
      * @param user /
      * @return /
      */
     @Override
     public List<Long> getDeptIds(User user) {
-        String key = CacheKey.DATA_USER + user.getId();
-        List<Long> ids = redisUtils.getList(key, Long.class);
-        if (CollUtil.isEmpty(ids)) {
-            Set<Long> deptIds = new HashSet<>();
-            // 查询用户角色
-            List<Role> roleList = roleService.findByUsersId(user.getId());
-            // 获取对应的部门ID
-            for (Role role : roleList) {
-                DataScopeEnum dataScopeEnum = DataScopeEnum.find(role.getDataScope());
-                switch (Objects.requireNonNull(dataScopeEnum)) {
-                    case THIS_LEVEL:
-                        deptIds.add(user.getDept().getId());
-                        break;
-                    case CUSTOMIZE:
-                        deptIds.addAll(getCustomize(deptIds, role));
-                        break;
-                    default:
-                        return new ArrayList<>();
-                }
+        DeptTree tree = deptTreeIndex.current();
+        BitSet scope = new BitSet(tree.size());
+        Long thisLevel = null;
+        // 查询用户角色
+        List<Role> roleList = roleService.findByUsersId(user.getId());
+        // 获取对应的部门ID
+        for (Role role : roleList) {
+            DataScopeEnum dataScopeEnum = DataScopeEnum.find(role.getDataScope());
+            switch (Objects.requireNonNull(dataScopeEnum)) {
+                case THIS_LEVEL:
+                    thisLevel = user.getDept().getId();
+                    break;
+                case CUSTOMIZE:
+                    scope.or(tree.roleScope(role.getId()));
+                    break;
+                default:
+                    return new ArrayList<>();
             }
-            ids = new ArrayList<>(deptIds);
-            redisUtils.set(key, ids, 1, TimeUnit.DAYS);
+        }
+        List<Long> ids = tree.toIds(scope);
+        if (thisLevel != null && !ids.contains(thisLevel)) {
+            ids.add(thisLevel);
         }
         return ids;
     }
 
-    /**
-     * 获取自定义的数据权限
-     * @param deptIds 部门ID
-     * @param role 角色
-     * @return 数据权限ID
-     */
-    public Set<Long> getCustomize(Set<Long> deptIds, Role role){
-        Set<Dept> depts = deptService.findByRoleId(role.getId());
-        for (Dept dept : depts) {
-            deptIds.add(dept.getId());
-            List<Dept> deptChildren = deptService.findByPid(dept.getId());
-            if (CollUtil.isNotEmpty(deptChildren)) {
-                deptIds.addAll(deptService.getDeptChildren(deptChildren));
-            }
+    @Override
+    public String compact(Collection<Long> deptIds) {
+        int threshold = properties.getCompactThreshold();
+        if (threshold <= 0 || deptIds == null || deptIds.size() <= threshold) {
+            return null;
         }
-        return deptIds;
+        return JSON.toJSONString(deptIds);
     }
 }
@@ -22,12 +22,12 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import me.zhengjie.exception.BadRequestException;
 import me.zhengjie.modules.system.domain.Dept;
-import me.zhengjie.modules.system.domain.User;
 import me.zhengjie.modules.system.mapper.RoleMapper;
 import me.zhengjie.modules.system.mapper.UserMapper;
 import me.zhengjie.modules.system.domain.dto.DeptQueryCriteria;
 import me.zhengjie.utils.*;
 import me.zhengjie.modules.system.mapper.DeptMapper;
+import me.zhengjie.modules.system.service.DataService;
 import me.zhengjie.modules.system.service.DeptService;
 import me.zhengjie.utils.enums.DataScopeEnum;
 import org.springframework.stereotype.Service;
@@ -51,6 +51,8 @@ public class DeptServiceImpl extends ServiceImpl<DeptMapper, Dept> implements De
     private final UserMapper userMapper;
     private final RedisUtils redisUtils;
     private final RoleMapper roleMapper;
+    private final DeptTreeIndex deptTreeIndex;
+    private final DataService dataService;
 
     @Override
     public List<Dept> queryAll(DeptQueryCriteria criteria, Boolean isQuery) throws Exception {
@@ -76,6 +78,7 @@ public class DeptServiceImpl extends ServiceImpl<DeptMapper, Dept> implements De
         }
         // 数据权限
         criteria.setIds(SecurityUtils.getCurrentUserDataScope());
+        criteria.setIdsJson(dataService.compact(criteria.getIds()));
         List<Dept> list = deptMapper.findAll(criteria);
         // 如果为空，就代表为自定义权限或者本级权限，就需要去重，不理解可以注释掉，看查询结果
         if(StringUtils.isBlank(dataScopeType)){
@@ -97,7 +100,7 @@ public class DeptServiceImpl extends ServiceImpl<DeptMapper, Dept> implements De
 
     @Override
     public List<Dept> findByPid(long pid) {
-        return deptMapper.findByPid(pid);
+        return deptTreeIndex.current().children(pid);
     }
 
     @Override
@@ -111,6 +114,7 @@ public class DeptServiceImpl extends ServiceImpl<DeptMapper, Dept> implements De
         save(resources);
         // 清理缓存
         updateSubCnt(resources.getPid());
+        deptTreeIndex.invalidate();
         // 清理自定义角色权限的datascope缓存
         delCaches(resources.getPid());
     }
@@ -132,6 +136,7 @@ public class DeptServiceImpl extends ServiceImpl<DeptMapper, Dept> implements De
         updateSubCnt(newPid);
         // 清理缓存
         delCaches(resources.getId());
+        deptTreeIndex.invalidate();
     }
 
     @Override
@@ -143,6 +148,7 @@ public class DeptServiceImpl extends ServiceImpl<DeptMapper, Dept> implements De
             deptMapper.deleteById(dept.getId());
             updateSubCnt(dept.getPid());
         }
+        deptTreeIndex.invalidate();
     }
 
     @Override
@@ -160,26 +166,26 @@ public class DeptServiceImpl extends ServiceImpl<DeptMapper, Dept> implements De
 
     @Override
     public Set<Dept> getDeleteDepts(List<Dept> menuList, Set<Dept> deptSet) {
+        DeptTree tree = deptTreeIndex.current();
         for (Dept dept : menuList) {
             deptSet.add(dept);
-            List<Dept> depts = deptMapper.findByPid(dept.getId());
-            if(CollUtil.isNotEmpty(depts)){
-                getDeleteDepts(depts, deptSet);
-            }
+            deptSet.addAll(tree.subtree(dept.getId()));
         }
         return deptSet;
     }
 
     @Override
     public List<Long> getDeptChildren(List<Dept> deptList) {
+        DeptTree tree = deptTreeIndex.current();
         List<Long> list = new ArrayList<>();
         deptList.forEach(dept -> {
                     if (dept!=null && dept.getEnabled()) {
-                        List<Dept> depts = deptMapper.findByPid(dept.getId());
-                        if (CollUtil.isNotEmpty(depts)) {
-                            list.addAll(getDeptChildren(depts));
+                        List<Long> ids = tree.subtreeIds(dept.getId(), true);
+                        if (CollUtil.isNotEmpty(ids)) {
+                            list.addAll(ids);
+                        } else {
+                            list.add(dept.getId());
                         }
-                        list.add(dept.getId());
                     }
                 }
         );
@@ -188,37 +194,35 @@ public class DeptServiceImpl extends ServiceImpl<DeptMapper, Dept> implements De
 
     @Override
     public List<Dept> getSuperior(Dept dept, List<Dept> depts) {
-        if(dept.getPid() == null){
-            depts.addAll(deptMapper.findByPidIsNull());
-            return depts;
-        }
-        depts.addAll(deptMapper.findByPid(dept.getPid()));
-        return getSuperior(findById(dept.getPid()), depts);
+        depts.addAll(deptTreeIndex.current().superior(dept.getPid()));
+        return depts;
     }
 
     @Override
     public Object buildTree(List<Dept> deptList) {
         Set<Dept> trees = new LinkedHashSet<>();
         Set<Dept> depts= new LinkedHashSet<>();
-        List<String> deptNames = deptList.stream().map(Dept::getName).collect(Collectors.toList());
-        boolean isChild;
+        Set<String> deptNames = deptList.stream().map(Dept::getName).collect(Collectors.toSet());
+        // 按上级分组，避免两层循环
+        Map<Long, List<Dept>> childrenMap = new HashMap<>(deptList.size());
+        for (Dept it : deptList) {
+            if (it.getPid() != null) {
+                childrenMap.computeIfAbsent(it.getPid(), k -> new ArrayList<>()).add(it);
+            }
+        }
+        DeptTree tree = deptTreeIndex.current();
         for (Dept dept : deptList) {
-            isChild = false;
             if (dept.getPid() == null) {
                 trees.add(dept);
             }
-            for (Dept it : deptList) {
-                if (it.getPid() != null && dept.getId().equals(it.getPid())) {
-                    isChild = true;
-                    if (dept.getChildren() == null) {
-                        dept.setChildren(new ArrayList<>());
-                    }
-                    dept.getChildren().add(it);
+            List<Dept> children = childrenMap.get(dept.getId());
+            if (children != null) {
+                if (dept.getChildren() == null) {
+                    dept.setChildren(new ArrayList<>());
                 }
-            }
-            if(isChild) {
+                dept.getChildren().addAll(children);
                 depts.add(dept);
-            } else if(dept.getPid() != null &&  !deptNames.contains(findById(dept.getPid()).getName())) {
+            } else if(dept.getPid() != null && !deptNames.contains(tree.getName(dept.getPid()))) {
                 depts.add(dept);
             }
         }
@@ -272,9 +276,6 @@ public class DeptServiceImpl extends ServiceImpl<DeptMapper, Dept> implements De
      * @param id /
      */
     public void delCaches(Long id){
-        List<User> users = userMapper.findByRoleDeptId(id);
-        // 删除数据权限
-        redisUtils.delByKeys(CacheKey.DATA_USER, users.stream().map(User::getId).collect(Collectors.toSet()));
         redisUtils.del(CacheKey.DEPT_ID + id);
     }
 }
@@ -0,0 +1,307 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.modules.system.service.impl;
+
+import me.zhengjie.modules.system.domain.Dept;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 部门树快照，构建后不再修改，可被多个线程共享
+ * 节点按先序遍历编号，任意部门的子树在 order 中是连续区间 [enter, exit)
+ * 角色的自定义数据权限以先序编号为下标的 BitSet 表示，首次使用时计算并缓存在快照上
+ * 对外返回的部门都是副本，调用方可以随意修改(如 buildTree 设置 children)
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public final class DeptTree {
+
+    private static final Comparator<Node> SORT = Comparator
+            .comparing((Node node) -> node.dept.getDeptSort(), Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(node -> node.dept.getId());
+
+    private final long version;
+    private final Map<Long, Node> nodes;
+    private final Node[] roots;
+    private final Node[] order;
+    private final Map<Long, long[]> roleDepts;
+    private final Map<Long, BitSet> roleScopes = new ConcurrentHashMap<>();
+
+    private DeptTree(long version, Map<Long, Node> nodes, Node[] roots, Node[] order, Map<Long, long[]> roleDepts) {
+        this.version = version;
+        this.nodes = nodes;
+        this.roots = roots;
+        this.order = order;
+        this.roleDepts = roleDepts;
+    }
+
+    /**
+     * 根据全部部门构建快照
+     * @param version 版本号
+     * @param depts 全部部门
+     * @param roleDepts 角色ID -> 自定义数据权限的部门ID
+     * @return /
+     */
+    public static DeptTree build(long version, List<Dept> depts, Map<Long, ? extends Collection<Long>> roleDepts) {
+        Map<Long, Node> nodes = new HashMap<>(depts.size() * 4 / 3 + 1);
+        for (Dept dept : depts) {
+            nodes.put(dept.getId(), new Node(dept));
+        }
+        Map<Long, List<Node>> children = new HashMap<>();
+        List<Node> roots = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            Long pid = node.dept.getPid();
+            if (pid == null || !nodes.containsKey(pid)) {
+                roots.add(node);
+            } else {
+                children.computeIfAbsent(pid, k -> new ArrayList<>()).add(node);
+            }
+        }
+        children.forEach((pid, list) -> {
+            list.sort(SORT);
+            nodes.get(pid).children = list.toArray(new Node[0]);
+        });
+        roots.sort(SORT);
+        // 迭代先序遍历，成环的数据无法从根节点到达，不会出现在 order 中
+        Node[] order = new Node[nodes.size()];
+        int index = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        for (Node root : roots) {
+            root.enter = index;
+            order[index++] = root;
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Node top = stack.peek();
+                if (top.next < top.children.length) {
+                    Node child = top.children[top.next++];
+                    child.enter = index;
+                    order[index++] = child;
+                    stack.push(child);
+                } else {
+                    top.exit = index;
+                    stack.pop();
+                }
+            }
+        }
+        Map<Long, long[]> roleDeptMap = new HashMap<>(roleDepts.size() * 4 / 3 + 1);
+        roleDepts.forEach((roleId, ids) -> roleDeptMap.put(roleId, ids.stream().mapToLong(Long::longValue).toArray()));
+        return new DeptTree(version, nodes, roots.toArray(new Node[0]), Arrays.copyOf(order, index), roleDeptMap);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * 获取部门
+     * @param id 部门ID
+     * @return 副本，不存在时返回 null
+     */
+    public Dept get(Long id) {
+        Node node = nodes.get(id);
+        return node == null ? null : copy(node.dept);
+    }
+
+    /**
+     * 获取部门名称
+     * @param id 部门ID
+     * @return 不存在时返回 null
+     */
+    public String getName(Long id) {
+        Node node = nodes.get(id);
+        return node == null ? null : node.dept.getName();
+    }
+
+    /**
+     * 获取直接下级，pid 为 null 时返回顶级部门
+     * @param pid 上级ID
+     * @return 副本
+     */
+    public List<Dept> children(Long pid) {
+        if (pid == null) {
+            return copy(roots);
+        }
+        Node node = nodes.get(pid);
+        return node == null ? new ArrayList<>() : copy(node.children);
+    }
+
+    /**
+     * 获取部门及其全部下级
+     * @param id 部门ID
+     * @return 副本，先序排列
+     */
+    public List<Dept> subtree(Long id) {
+        Node node = nodes.get(id);
+        if (node == null || node.enter < 0) {
+            return new ArrayList<>();
+        }
+        List<Dept> depts = new ArrayList<>(node.exit - node.enter);
+        for (int i = node.enter; i < node.exit; i++) {
+            depts.add(copy(order[i].dept));
+        }
+        return depts;
+    }
+
+    /**
+     * 获取部门及其全部下级的ID
+     * @param id 部门ID
+     * @param enabled 为 true 时跳过停用的下级部门及其子树
+     * @return 部门不存在时返回空集合
+     */
+    public List<Long> subtreeIds(Long id, boolean enabled) {
+        Node node = nodes.get(id);
+        if (node == null || node.enter < 0) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = new ArrayList<>(node.exit - node.enter);
+        int i = node.enter;
+        while (i < node.exit) {
+            Node current = order[i];
+            if (enabled && current != node && !Boolean.TRUE.equals(current.dept.getEnabled())) {
+                i = current.exit;
+                continue;
+            }
+            ids.add(current.dept.getId());
+            i++;
+        }
+        return ids;
+    }
+
+    /**
+     * 获取角色的自定义数据权限：关联的部门及其启用的下级部门
+     * @param roleId 角色ID
+     * @return 以先序编号为下标的集合，共享对象，调用方不能修改
+     */
+    public BitSet roleScope(Long roleId) {
+        return roleScopes.computeIfAbsent(roleId, id -> {
+            BitSet scope = new BitSet(order.length);
+            long[] deptIds = roleDepts.get(id);
+            if (deptIds == null) {
+                return scope;
+            }
+            for (long deptId : deptIds) {
+                Node node = nodes.get(deptId);
+                if (node == null || node.enter < 0 || scope.get(node.enter)) {
+                    continue;
+                }
+                scope.set(node.enter);
+                int i = node.enter + 1;
+                while (i < node.exit) {
+                    Node current = order[i];
+                    if (!Boolean.TRUE.equals(current.dept.getEnabled())) {
+                        i = current.exit;
+                        continue;
+                    }
+                    scope.set(i++);
+                }
+            }
+            return scope;
+        });
+    }
+
+    /**
+     * 将 roleScope 的结果转换为部门ID
+     * @param scope 以先序编号为下标的集合
+     * @return 部门ID
+     */
+    public List<Long> toIds(BitSet scope) {
+        List<Long> ids = new ArrayList<>(scope.cardinality());
+        for (int i = scope.nextSetBit(0); i >= 0; i = scope.nextSetBit(i + 1)) {
+            ids.add(order[i].dept.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 判断 ancestor 是否为 id 本身或其上级
+     * @param ancestor 上级ID
+     * @param id 部门ID
+     * @return /
+     */
+    public boolean isAncestor(Long ancestor, Long id) {
+        Node parent = nodes.get(ancestor);
+        Node node = nodes.get(id);
+        if (parent == null || node == null || parent.enter < 0 || node.enter < 0) {
+            return false;
+        }
+        return parent.enter <= node.enter && node.enter < parent.exit;
+    }
+
+    /**
+     * 获取同级与全部上级的同级部门，直到顶级部门
+     * @param pid 部门的上级ID
+     * @return 副本
+     */
+    public List<Dept> superior(Long pid) {
+        List<Dept> depts = new ArrayList<>();
+        Long current = pid;
+        for (int depth = 0; depth <= nodes.size(); depth++) {
+            if (current == null) {
+                depts.addAll(copy(roots));
+                break;
+            }
+            Node node = nodes.get(current);
+            if (node == null) {
+                break;
+            }
+            depts.addAll(copy(node.children));
+            current = node.dept.getPid();
+        }
+        return depts;
+    }
+
+    private static List<Dept> copy(Node[] nodes) {
+        List<Dept> depts = new ArrayList<>(nodes.length);
+        for (Node node : nodes) {
+            depts.add(copy(node.dept));
+        }
+        return depts;
+    }
+
+    private static Dept copy(Dept source) {
+        Dept dept = new Dept();
+        dept.setId(source.getId());
+        dept.setName(source.getName());
+        dept.setPid(source.getPid());
+        dept.setEnabled(source.getEnabled());
+        dept.setDeptSort(source.getDeptSort());
+        dept.setSubCount(source.getSubCount());
+        dept.setCreateBy(source.getCreateBy());
+        dept.setUpdateBy(source.getUpdateBy());
+        dept.setCreateTime(source.getCreateTime());
+        dept.setUpdateTime(source.getUpdateTime());
+        return dept;
+    }
+
+    private static final class Node {
+        private static final Node[] EMPTY = new Node[0];
+
+        private final Dept dept;
+        private Node[] children = EMPTY;
+        private int enter = -1;
+        private int exit = -1;
+        /** 仅构建时使用，下一个待访问的子节点 */
+        private int next;
+
+        private Node(Dept dept) {
+            this.dept = dept;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.modules.system.service.impl;
+
+import me.zhengjie.modules.system.mapper.DeptMapper;
+import me.zhengjie.modules.system.mapper.RoleDeptMapper;
+import me.zhengjie.utils.CacheKey;
+import me.zhengjie.utils.RedisUtils;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 部门树索引，持有当前的 DeptTree 快照
+ * 部门或角色关联的部门变更后通过 dept::tree:version 通知各节点重建
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Component
+public class DeptTreeIndex extends VersionedIndex<DeptTree> {
+
+    private final DeptMapper deptMapper;
+    private final RoleDeptMapper roleDeptMapper;
+
+    public DeptTreeIndex(DeptMapper deptMapper, RoleDeptMapper roleDeptMapper, RedisUtils redisUtils) {
+        super(redisUtils, CacheKey.DEPT_TREE_VERSION);
+        this.deptMapper = deptMapper;
+        this.roleDeptMapper = roleDeptMapper;
+    }
+
+    @Override
+    protected DeptTree load(long version) {
+        Map<Long, List<Long>> roleDepts = new HashMap<>();
+        for (Map<String, Object> relation : roleDeptMapper.findAll()) {
+            Long roleId = ((Number) relation.get("roleId")).longValue();
+            Long deptId = ((Number) relation.get("deptId")).longValue();
+            roleDepts.computeIfAbsent(roleId, k -> new ArrayList<>()).add(deptId);
+        }
+        return DeptTree.build(version, deptMapper.selectList(null), roleDepts);
+    }
+}
@@ -55,6 +55,7 @@ public class MenuServiceImpl extends ServiceImpl<MenuMapper, Menu> implements Me
     private final UserMapper userMapper;
     private final RoleService roleService;
     private final RedisUtils redisUtils;
+    private final MenuTreeIndex menuTreeIndex;
 
     private static final String HTTP_PRE = "http://";
     private static final String HTTPS_PRE = "https://";
@@ -113,6 +114,12 @@ public class MenuServiceImpl extends ServiceImpl<MenuMapper, Menu> implements Me
         return menus;
     }
 
+    @Override
+    public List<MenuVo> buildMenusByUser(Long userId) {
+        Set<Long> roleIds = roleService.findByUsersId(userId).stream().map(Role::getId).collect(Collectors.toSet());
+        return menuTreeIndex.current().menuVos(roleIds, this::buildMenus);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void create(Menu resources) {
@@ -137,6 +144,7 @@ public class MenuServiceImpl extends ServiceImpl<MenuMapper, Menu> implements Me
         resources.setSubCount(0);
         // 更新父节点菜单数目
         updateSubCnt(resources.getPid());
+        menuTreeIndex.invalidate();
     }
 
     @Override
@@ -189,16 +197,15 @@ public class MenuServiceImpl extends ServiceImpl<MenuMapper, Menu> implements Me
         updateSubCnt(newPid);
         // 清理缓存
         delCaches(resources.getId());
+        menuTreeIndex.invalidate();
     }
 
     @Override
     public Set<Menu> getChildMenus(List<Menu> menuList, Set<Menu> menuSet) {
+        MenuTree tree = menuTreeIndex.current();
         for (Menu menu : menuList) {
             menuSet.add(menu);
-            List<Menu> menus = menuMapper.findByPidOrderByMenuSort(menu.getId());
-            if(CollUtil.isNotEmpty(menus)){
-                getChildMenus(menus, menuSet);
-            }
+            menuSet.addAll(tree.subtree(menu.getId()));
         }
         return menuSet;
     }
@@ -213,45 +220,45 @@ public class MenuServiceImpl extends ServiceImpl<MenuMapper, Menu> implements Me
             menuMapper.deleteById(menu.getId());
             updateSubCnt(menu.getPid());
         }
+        menuTreeIndex.invalidate();
     }
 
     @Override
     public List<Menu> getMenus(Long pid) {
-        List<Menu> menus;
-        if(pid != null && !pid.equals(0L)){
-            menus = menuMapper.findByPidOrderByMenuSort(pid);
-        } else {
-            menus = menuMapper.findByPidIsNullOrderByMenuSort();
+        if(pid != null && pid.equals(0L)){
+            pid = null;
         }
-        return menus;
+        return menuTreeIndex.current().children(pid);
     }
 
     @Override
     public List<Menu> getSuperior(Menu menu, List<Menu> menus) {
-        if(menu.getPid() == null){
-            menus.addAll(menuMapper.findByPidIsNullOrderByMenuSort());
-            return menus;
-        }
-        menus.addAll(menuMapper.findByPidOrderByMenuSort(menu.getPid()));
-        return getSuperior(findById(menu.getPid()), menus);
+        menus.addAll(menuTreeIndex.current().superior(menu.getPid()));
+        return menus;
     }
 
     @Override
     public List<Menu> buildTree(List<Menu> menus) {
         List<Menu> trees = new ArrayList<>();
         Set<Long> ids = new HashSet<>();
+        // 按上级分组，避免两层循环
+        Map<Long, List<Menu>> childrenMap = new HashMap<>(menus.size());
+        for (Menu it : menus) {
+            if (it.getPid() != null) {
+                childrenMap.computeIfAbsent(it.getPid(), k -> new ArrayList<>()).add(it);
+            }
+        }
         for (Menu menu : menus) {
             if (menu.getPid() == null) {
                 trees.add(menu);
             }
-            for (Menu it : menus) {
-                if (menu.getId().equals(it.getPid())) {
-                    if (menu.getChildren() == null) {
-                        menu.setChildren(new ArrayList<>());
-                    }
-                    menu.getChildren().add(it);
-                    ids.add(it.getId());
+            List<Menu> children = childrenMap.get(menu.getId());
+            if (children != null) {
+                if (menu.getChildren() == null) {
+                    menu.setChildren(new ArrayList<>());
                 }
+                menu.getChildren().addAll(children);
+                children.forEach(it -> ids.add(it.getId()));
             }
         }
         if(CollUtil.isNotEmpty(trees)){
@@ -0,0 +1,257 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.modules.system.service.impl;
+
+import me.zhengjie.modules.system.domain.Menu;
+import me.zhengjie.modules.system.domain.dto.MenuVo;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 菜单森林快照，包含全部菜单与角色菜单关系，构建后不再修改
+ * 用户菜单由角色拥有的菜单过滤得到，生成的 MenuVo 按角色组合缓存在快照上，快照更新后自然失效
+ * 对外返回的菜单都是副本，调用方可以随意修改
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public final class MenuTree {
+
+    /** 按钮类型，不出现在前端路由中 */
+    private static final int BUTTON = 2;
+    /** 按角色组合缓存 MenuVo 的最大数量 */
+    private static final int MAX_VIEWS = 1024;
+
+    private static final Comparator<Menu> SORT = Comparator
+            .comparing(Menu::getMenuSort, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Menu::getId);
+
+    private final Map<Long, Menu> menus;
+    private final Map<Long, Menu[]> children;
+    private final Menu[] roots;
+    private final Map<Long, long[]> roleMenus;
+    private final Map<String, List<MenuVo>> views = new ConcurrentHashMap<>();
+
+    private MenuTree(Map<Long, Menu> menus, Map<Long, Menu[]> children, Menu[] roots, Map<Long, long[]> roleMenus) {
+        this.menus = menus;
+        this.children = children;
+        this.roots = roots;
+        this.roleMenus = roleMenus;
+    }
+
+    /**
+     * 构建快照
+     * @param menus 全部菜单
+     * @param roleMenus 角色ID -> 菜单ID
+     * @return /
+     */
+    public static MenuTree build(List<Menu> menus, Map<Long, ? extends Collection<Long>> roleMenus) {
+        Map<Long, Menu> menuMap = new HashMap<>(menus.size() * 4 / 3 + 1);
+        for (Menu menu : menus) {
+            menuMap.put(menu.getId(), menu);
+        }
+        Map<Long, List<Menu>> childrenMap = new HashMap<>();
+        List<Menu> roots = new ArrayList<>();
+        for (Menu menu : menuMap.values()) {
+            if (menu.getPid() == null) {
+                roots.add(menu);
+            } else {
+                childrenMap.computeIfAbsent(menu.getPid(), k -> new ArrayList<>()).add(menu);
+            }
+        }
+        Map<Long, Menu[]> children = new HashMap<>(childrenMap.size() * 4 / 3 + 1);
+        childrenMap.forEach((pid, list) -> {
+            list.sort(SORT);
+            children.put(pid, list.toArray(new Menu[0]));
+        });
+        roots.sort(SORT);
+        Map<Long, long[]> roleMenuMap = new HashMap<>(roleMenus.size() * 4 / 3 + 1);
+        roleMenus.forEach((roleId, ids) -> roleMenuMap.put(roleId, ids.stream().mapToLong(Long::longValue).toArray()));
+        return new MenuTree(menuMap, children, roots.toArray(new Menu[0]), roleMenuMap);
+    }
+
+    /**
+     * 获取直接下级，pid 为 null 时返回顶级菜单
+     * @param pid 上级ID
+     * @return 副本，按 menuSort 排序
+     */
+    public List<Menu> children(Long pid) {
+        return copy(pid == null ? roots : children.get(pid));
+    }
+
+    /**
+     * 获取菜单及其全部下级
+     * @param id 菜单ID
+     * @return 副本
+     */
+    public List<Menu> subtree(Long id) {
+        List<Menu> result = new ArrayList<>();
+        Menu menu = menus.get(id);
+        if (menu == null) {
+            return result;
+        }
+        Set<Long> visited = new HashSet<>();
+        Deque<Menu> stack = new ArrayDeque<>();
+        stack.push(menu);
+        while (!stack.isEmpty()) {
+            Menu current = stack.pop();
+            // 防止异常数据成环
+            if (!visited.add(current.getId())) {
+                continue;
+            }
+            result.add(copy(current));
+            Menu[] items = children.get(current.getId());
+            if (items != null) {
+                for (int i = items.length - 1; i >= 0; i--) {
+                    stack.push(items[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取同级与全部上级的同级菜单，直到顶级菜单
+     * @param pid 菜单的上级ID
+     * @return 副本
+     */
+    public List<Menu> superior(Long pid) {
+        List<Menu> result = new ArrayList<>();
+        Long current = pid;
+        for (int depth = 0; depth <= menus.size(); depth++) {
+            if (current == null) {
+                result.addAll(copy(roots));
+                break;
+            }
+            Menu menu = menus.get(current);
+            if (menu == null) {
+                break;
+            }
+            result.addAll(copy(children.get(current)));
+            current = menu.getPid();
+        }
+        return result;
+    }
+
+    /**
+     * 获取角色组合对应的前端路由，同一角色组合只构建一次
+     * @param roleIds 角色ID
+     * @param builder 由菜单树生成 MenuVo
+     * @return 共享的结果，调用方不能修改
+     */
+    public List<MenuVo> menuVos(Collection<Long> roleIds, Function<List<Menu>, List<MenuVo>> builder) {
+        long[] sorted = roleIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        String key = Arrays.toString(sorted);
+        List<MenuVo> result = views.get(key);
+        if (result == null) {
+            result = Collections.unmodifiableList(builder.apply(forRoles(sorted)));
+            if (views.size() < MAX_VIEWS) {
+                views.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按角色过滤菜单(不含按钮)并重新组装成树，上级未授权的菜单作为顶级节点
+     */
+    private List<Menu> forRoles(long[] roleIds) {
+        Set<Long> granted = new HashSet<>();
+        for (long roleId : roleIds) {
+            long[] ids = roleMenus.get(roleId);
+            if (ids == null) {
+                continue;
+            }
+            for (long id : ids) {
+                Menu menu = menus.get(id);
+                if (menu != null && !Integer.valueOf(BUTTON).equals(menu.getType())) {
+                    granted.add(id);
+                }
+            }
+        }
+        List<Menu> tops = new ArrayList<>();
+        boolean hasRoot = false;
+        for (Long id : granted) {
+            Menu menu = menus.get(id);
+            if (menu.getPid() == null || !granted.contains(menu.getPid())) {
+                tops.add(menu);
+                hasRoot |= menu.getPid() == null;
+            }
+        }
+        // 与原 buildTree 保持一致：没有任何顶级菜单时返回空
+        if (!hasRoot) {
+            return new ArrayList<>();
+        }
+        tops.sort(SORT);
+        List<Menu> result = new ArrayList<>(tops.size());
+        for (Menu menu : tops) {
+            result.add(link(menu, granted, new HashSet<>()));
+        }
+        return result;
+    }
+
+    private Menu link(Menu menu, Set<Long> granted, Set<Long> path) {
+        Menu copy = copy(menu);
+        Menu[] items = children.get(menu.getId());
+        if (items != null && path.add(menu.getId())) {
+            List<Menu> linked = new ArrayList<>();
+            for (Menu item : items) {
+                if (granted.contains(item.getId())) {
+                    linked.add(link(item, granted, path));
+                }
+            }
+            if (!linked.isEmpty()) {
+                copy.setChildren(linked);
+            }
+            path.remove(menu.getId());
+        }
+        return copy;
+    }
+
+    private static List<Menu> copy(Menu[] menus) {
+        if (menus == null) {
+            return new ArrayList<>();
+        }
+        List<Menu> result = new ArrayList<>(menus.length);
+        for (Menu menu : menus) {
+            result.add(copy(menu));
+        }
+        return result;
+    }
+
+    private static Menu copy(Menu source) {
+        Menu menu = new Menu();
+        menu.setId(source.getId());
+        menu.setTitle(source.getTitle());
+        menu.setComponentName(source.getComponentName());
+        menu.setMenuSort(source.getMenuSort());
+        menu.setComponent(source.getComponent());
+        menu.setPath(source.getPath());
+        menu.setType(source.getType());
+        menu.setPermission(source.getPermission());
+        menu.setIcon(source.getIcon());
+        menu.setCache(source.getCache());
+        menu.setHidden(source.getHidden());
+        menu.setPid(source.getPid());
+        menu.setSubCount(source.getSubCount());
+        menu.setIFrame(source.getIFrame());
+        menu.setCreateBy(source.getCreateBy());
+        menu.setUpdateBy(source.getUpdateBy());
+        menu.setCreateTime(source.getCreateTime());
+        menu.setUpdateTime(source.getUpdateTime());
+        return menu;
+    }
+}
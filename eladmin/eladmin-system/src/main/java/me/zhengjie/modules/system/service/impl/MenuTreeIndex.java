@@ -0,0 +1,56 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.modules.system.service.impl;
+
+import me.zhengjie.modules.system.mapper.MenuMapper;
+import me.zhengjie.modules.system.mapper.RoleMenuMapper;
+import me.zhengjie.utils.CacheKey;
+import me.zhengjie.utils.RedisUtils;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 菜单树索引，持有当前的 MenuTree 快照
+ * 菜单或角色菜单关系变更后通过 menu::tree:version 通知各节点重建
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Component
+public class MenuTreeIndex extends VersionedIndex<MenuTree> {
+
+    private final MenuMapper menuMapper;
+    private final RoleMenuMapper roleMenuMapper;
+
+    public MenuTreeIndex(MenuMapper menuMapper, RoleMenuMapper roleMenuMapper, RedisUtils redisUtils) {
+        super(redisUtils, CacheKey.MENU_TREE_VERSION);
+        this.menuMapper = menuMapper;
+        this.roleMenuMapper = roleMenuMapper;
+    }
+
+    @Override
+    protected MenuTree load(long version) {
+        Map<Long, List<Long>> roleMenus = new HashMap<>();
+        for (Map<String, Object> relation : roleMenuMapper.findAll()) {
+            Long roleId = ((Number) relation.get("roleId")).longValue();
+            Long menuId = ((Number) relation.get("menuId")).longValue();
+            roleMenus.computeIfAbsent(roleId, k -> new ArrayList<>()).add(menuId);
+        }
+        return MenuTree.build(menuMapper.selectList(null), roleMenus);
+    }
+}
@@ -17,7 +17,9 @@ package me.zhengjie.modules.system.service.impl;
 
 import cn.hutool.core.date.BetweenFormatter.Level;
 import cn.hutool.core.date.DateUtil;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.zhengjie.base.MetricsProvider;
 import me.zhengjie.modules.system.service.MonitorService;
 import me.zhengjie.utils.ElConstant;
 import me.zhengjie.utils.FileUtil;
@@ -40,9 +42,11 @@ import java.util.*;
 */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class MonitorServiceImpl implements MonitorService {
 
     private final DecimalFormat df = new DecimalFormat("0.00");
+    private final List<MetricsProvider> metricsProviders;
 
     @Override
     public Map<String,Object> getServers(){
@@ -68,6 +72,15 @@ public class MonitorServiceImpl implements MonitorService {
         return resultMap;
     }
 
+    @Override
+    public Map<String,Object> getMetrics(){
+        Map<String, Object> resultMap = new LinkedHashMap<>(metricsProviders.size());
+        for (MetricsProvider provider : metricsProviders) {
+            resultMap.put(provider.getMetricsName(), provider.getMetrics());
+        }
+        return resultMap;
+    }
+
     /**
      * 获取磁盘信息
      * @return /
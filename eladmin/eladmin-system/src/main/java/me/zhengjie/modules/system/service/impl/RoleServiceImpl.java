@@ -56,6 +56,8 @@ public class RoleServiceImpl extends ServiceImpl<RoleMapper, Role> implements Ro
     private final RedisUtils redisUtils;
     private final UserMapper userMapper;
     private final UserCacheManager userCacheManager;
+    private final MenuTreeIndex menuTreeIndex;
+    private final DeptTreeIndex deptTreeIndex;
 
     @Override
     public List<Role> queryAll() {
@@ -97,6 +99,7 @@ public class RoleServiceImpl extends ServiceImpl<RoleMapper, Role> implements Ro
         if (CollectionUtil.isNotEmpty(resources.getDepts())) {
             roleDeptMapper.insertData(resources.getId(), resources.getDepts());
         }
+        deptTreeIndex.invalidate();
     }
 
     @Override
@@ -122,6 +125,7 @@ public class RoleServiceImpl extends ServiceImpl<RoleMapper, Role> implements Ro
         }
         // 更新相关缓存
         delCaches(role.getId(), null);
+        deptTreeIndex.invalidate();
     }
 
     @Override
@@ -135,6 +139,7 @@ public class RoleServiceImpl extends ServiceImpl<RoleMapper, Role> implements Ro
         }
         // 更新缓存
         delCaches(role.getId(), users);
+        menuTreeIndex.invalidate();
     }
 
     @Override
@@ -148,6 +153,8 @@ public class RoleServiceImpl extends ServiceImpl<RoleMapper, Role> implements Ro
         // 删除角色部门关联数据、角色菜单关联数据
         roleDeptMapper.deleteByRoleIds(ids);
         roleMenuMapper.deleteByRoleIds(ids);
+        menuTreeIndex.invalidate();
+        deptTreeIndex.invalidate();
     }
 
     @Override
@@ -229,12 +236,9 @@ public class RoleServiceImpl extends ServiceImpl<RoleMapper, Role> implements Ro
     public void delCaches(Long id, List<User> users) {
         users = CollectionUtil.isEmpty(users) ? userMapper.findByRoleId(id) : users;
         if (CollectionUtil.isNotEmpty(users)) {
-            users.forEach(item -> userCacheManager.cleanUserCache(item.getUsername()));
+            userCacheManager.cleanUserCaches(users.stream().map(User::getUsername).collect(Collectors.toList()));
             Set<Long> userIds = users.stream().map(User::getId).collect(Collectors.toSet());
-            redisUtils.delByKeys(CacheKey.DATA_USER, userIds);
-            redisUtils.delByKeys(CacheKey.MENU_USER, userIds);
-            redisUtils.delByKeys(CacheKey.ROLE_AUTH, userIds);
-            redisUtils.delByKeys(CacheKey.ROLE_USER, userIds);
+            redisUtils.delByKeys(userIds, CacheKey.MENU_USER, CacheKey.ROLE_AUTH, CacheKey.ROLE_USER);
         }
         redisUtils.del(CacheKey.ROLE_ID + id);
     }
@@ -31,6 +31,8 @@ import me.zhengjie.modules.system.mapper.UserJobMapper;
 import me.zhengjie.modules.system.mapper.UserMapper;
 import me.zhengjie.modules.system.mapper.UserRoleMapper;
 import me.zhengjie.modules.system.service.UserService;
+import me.zhengjie.service.FileBlobService;
+import org.apache.ibatis.cursor.Cursor;
 import me.zhengjie.utils.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -59,6 +61,8 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     private final RedisUtils redisUtils;
     private final UserCacheManager userCacheManager;
     private final OnlineUserService onlineUserService;
+    private final ExportJobManager exportJobManager;
+    private final FileBlobService fileBlobService;
 
     @Override
     public PageResult<User> queryAll(UserQueryCriteria criteria, Page<Object> page) {
@@ -68,6 +72,21 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         return PageUtil.toPage(users, total);
     }
 
+    @Override
+    public PageResult<User> queryAfter(UserQueryCriteria criteria) {
+        // 统计总数后再设置游标，总数不受游标影响
+        criteria.setCursorId(null);
+        long total = Boolean.FALSE.equals(criteria.getCount()) ? -1 : userMapper.countAll(criteria);
+        criteria.setCursorId(PageUtil.decodeCursor(criteria.getAfterId()));
+        // 多查询一条用于判断是否还有下一页
+        int size = criteria.getSize();
+        criteria.setOffset(0);
+        criteria.setSize(size + 1);
+        List<User> users = userMapper.findAll(criteria);
+        criteria.setSize(size);
+        return PageUtil.toCursorPage(users, size, total, User::getId);
+    }
+
     @Override
     public List<User> queryAll(UserQueryCriteria criteria) {
         return userMapper.findAll(criteria);
@@ -123,15 +142,10 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         }
         // 如果用户的角色改变
         if (!resources.getRoles().equals(user.getRoles())) {
-            redisUtils.del(CacheKey.DATA_USER + resources.getId());
             redisUtils.del(CacheKey.MENU_USER + resources.getId());
             redisUtils.del(CacheKey.ROLE_AUTH + resources.getId());
             redisUtils.del(CacheKey.ROLE_USER + resources.getId());
         }
-        // 修改部门会影响 数据权限
-        if (!Objects.equals(resources.getDept(),user.getDept())) {
-            redisUtils.del(CacheKey.DATA_USER + resources.getId());
-        }
         // 如果用户被禁用，则清除用户登录信息
         if(!resources.getEnabled()){
             onlineUserService.kickOutForUsername(resources.getUsername());
@@ -233,13 +247,18 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         }
         User user = userMapper.findByUsername(SecurityUtils.getCurrentUsername());
         String oldPath = user.getAvatarPath();
-        File file = FileUtil.upload(multipartFile, properties.getPath().getAvatar());
+        File file;
+        if (properties.isDedup()) {
+            // 按内容存储，相同的头像只保存一份
+            file = new File(fileBlobService.save(multipartFile, properties.getPath().getAvatar()).getPath());
+        } else {
+            file = FileUtil.upload(multipartFile, properties.getPath().getAvatar());
+        }
         user.setAvatarPath(Objects.requireNonNull(file).getPath());
         user.setAvatarName(file.getName());
         saveOrUpdate(user);
-        if (StringUtils.isNotBlank(oldPath)) {
-            FileUtil.del(oldPath);
-        }
+        // 旧头像可能被其他用户引用，由引用数决定是否删除
+        fileBlobService.release(oldPath);
         @NotBlank String username = user.getUsername();
         flushCache(username);
         return new HashMap<String, String>(1) {{
@@ -254,24 +273,38 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         flushCache(username);
     }
 
+    /**
+     * 游标需要在事务内读取，事务结束时关闭
+     */
     @Override
-    public void download(List<User> users, HttpServletResponse response) throws IOException {
-        List<Map<String, Object>> list = new ArrayList<>();
-        for (User user : users) {
-            List<String> roles = user.getRoles().stream().map(Role::getName).collect(Collectors.toList());
-            Map<String, Object> map = new LinkedHashMap<>();
-            map.put("用户名", user.getUsername());
-            map.put("角色", roles);
-            map.put("部门", user.getDept().getName());
-            map.put("岗位", user.getJobs().stream().map(Job::getName).collect(Collectors.toList()));
-            map.put("邮箱", user.getEmail());
-            map.put("状态", user.getEnabled() ? "启用" : "禁用");
-            map.put("手机号码", user.getPhone());
-            map.put("修改密码的时间", user.getPwdResetTime());
-            map.put("创建日期", user.getCreateTime());
-            list.add(map);
+    @Transactional(readOnly = true)
+    public void download(UserQueryCriteria criteria, ExportSheet.Format format, HttpServletResponse response) throws IOException {
+        try (Cursor<User> cursor = userMapper.findCursor(criteria)) {
+            FileUtil.download(cursor, exportSheet(), format, response);
         }
-        FileUtil.downloadExcel(list, response);
+    }
+
+    @Override
+    public void download(List<User> users, ExportSheet.Format format, HttpServletResponse response) throws IOException {
+        FileUtil.download(users, exportSheet(), format, response);
+    }
+
+    @Override
+    public ExportJob submitExport(UserQueryCriteria criteria, ExportSheet.Format format) {
+        return exportJobManager.submit("用户数据", exportSheet(), format, () -> userMapper.findCursor(criteria));
+    }
+
+    private ExportSheet<User> exportSheet() {
+        return ExportSheet.<User>create()
+                .column("用户名", User::getUsername)
+                .column("角色", user -> user.getRoles().stream().map(Role::getName).collect(Collectors.toList()))
+                .column("部门", user -> user.getDept() == null ? null : user.getDept().getName())
+                .column("岗位", user -> user.getJobs().stream().map(Job::getName).collect(Collectors.toList()))
+                .column("邮箱", User::getEmail)
+                .column("状态", user -> user.getEnabled() ? "启用" : "禁用")
+                .column("手机号码", User::getPhone)
+                .column("修改密码的时间", User::getPwdResetTime)
+                .column("创建日期", User::getCreateTime);
     }
 
     /**
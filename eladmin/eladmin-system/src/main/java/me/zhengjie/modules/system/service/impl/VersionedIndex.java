@@ -0,0 +1,132 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.modules.system.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import me.zhengjie.utils.RedisUtils;
+import me.zhengjie.utils.StringUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 基于 Redis 版本号的本地只读快照
+ * 数据变更后递增 Redis 中的版本号，各节点发现版本变化时重新加载数据构建新快照
+ * 版本号最多每秒检查一次，其他节点的变更最多延迟一秒可见
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Slf4j
+public abstract class VersionedIndex<T> {
+
+    /** 版本号检查间隔/毫秒 */
+    private static final long CHECK_INTERVAL = 1000;
+
+    private final RedisUtils redisUtils;
+    private final String versionKey;
+
+    private volatile Entry<T> entry;
+    private volatile long checkedAt;
+
+    protected VersionedIndex(RedisUtils redisUtils, String versionKey) {
+        this.redisUtils = redisUtils;
+        this.versionKey = versionKey;
+    }
+
+    /**
+     * 从数据库加载数据并构建快照
+     * @param version 版本号
+     * @return /
+     */
+    protected abstract T load(long version);
+
+    /**
+     * 获取当前快照
+     * @return /
+     */
+    public T current() {
+        Entry<T> current = entry;
+        long now = System.currentTimeMillis();
+        if (current != null && now - checkedAt < CHECK_INTERVAL) {
+            return current.value;
+        }
+        long version = remoteVersion(current);
+        if (current == null || current.version != version) {
+            current = rebuild(version);
+        }
+        checkedAt = now;
+        return current.value;
+    }
+
+    /**
+     * 数据变更后调用，存在事务时在提交后递增版本号，避免其他节点读到未提交的数据
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump();
+                }
+            });
+        } else {
+            bump();
+        }
+    }
+
+    private void bump() {
+        try {
+            redisUtils.increment(versionKey);
+        } catch (Exception e) {
+            log.error("Version increment failed, key: {}, error: {}", versionKey, e.getMessage());
+        }
+        entry = null;
+    }
+
+    private synchronized Entry<T> rebuild(long version) {
+        Entry<T> current = entry;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        long start = System.currentTimeMillis();
+        current = new Entry<>(version, load(version));
+        entry = current;
+        log.debug("{} rebuilt, version: {}, cost: {}ms", getClass().getSimpleName(), version, System.currentTimeMillis() - start);
+        return current;
+    }
+
+    /**
+     * 读取 Redis 中的版本号，Redis 不可用时沿用本地快照
+     */
+    private long remoteVersion(Entry<T> current) {
+        try {
+            String version = redisUtils.getStr(versionKey);
+            return StringUtils.isBlank(version) ? 0 : Long.parseLong(version);
+        } catch (Exception e) {
+            log.error("Version read failed, key: {}, error: {}", versionKey, e.getMessage());
+            return current == null ? 0 : current.version;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final long version;
+        private final T value;
+
+        private Entry(long version, T value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package me.zhengjie.sysrunner;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.zhengjie.service.impl.SysLogPartitionManager;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
@@ -31,7 +32,11 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class SystemRunner implements ApplicationRunner {
 
+    private final SysLogPartitionManager sysLogPartitionManager;
+
     @Override
     public void run(ApplicationArguments args) {
+        // 确保日志分区存在
+        sysLogPartitionManager.maintain();
     }
 }
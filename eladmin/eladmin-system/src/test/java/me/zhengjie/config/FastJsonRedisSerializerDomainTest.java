@@ -0,0 +1,111 @@
+package me.zhengjie.config;
+
+import com.alibaba.fastjson2.JSONFactory;
+import me.zhengjie.config.properties.RedisSerializerProperties;
+import me.zhengjie.modules.security.service.dto.AuthorityDto;
+import me.zhengjie.modules.security.service.dto.JwtUserDto;
+import me.zhengjie.modules.system.domain.Role;
+import me.zhengjie.modules.system.domain.User;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缓存中的领域对象按类名自动识别类型，json 与 jsonb、压缩与不压缩都能还原
+ */
+public class FastJsonRedisSerializerDomainTest {
+
+    private static final int THRESHOLD = 256;
+
+    @BeforeAll
+    public static void setUp() {
+        JSONFactory.getDefaultObjectReaderProvider().addAutoTypeAccept("me.zhengjie");
+    }
+
+    @Test
+    public void testJwtUser() {
+        for (RedisSerializerProperties.Format format : RedisSerializerProperties.Format.values()) {
+            Object value = roundTrip(format, 0, jwtUser(2));
+            assertTrue(value instanceof JwtUserDto);
+            JwtUserDto jwtUser = (JwtUserDto) value;
+            assertEquals("admin", jwtUser.getUsername());
+            assertEquals(Long.valueOf(1), jwtUser.getUser().getId());
+            assertEquals(Arrays.asList(1L, 2L), jwtUser.getDataScopes());
+            assertEquals(new HashSet<>(Arrays.asList("role:0", "role:1")), jwtUser.getRoles());
+        }
+    }
+
+    @Test
+    public void testRoles() {
+        List<Role> roles = roles(3);
+        Object value = roundTrip(RedisSerializerProperties.Format.JSONB, 0, roles);
+        assertTrue(value instanceof List);
+        List<?> list = (List<?>) value;
+        assertEquals(3, list.size());
+        assertTrue(list.get(0) instanceof Role);
+        assertEquals(names(roles), names(list));
+    }
+
+    @Test
+    public void testCompressed() {
+        JwtUserDto jwtUser = jwtUser(200);
+        RedisConfiguration.FastJsonRedisSerializer<Object> serializer = serializer(RedisSerializerProperties.Format.JSONB, THRESHOLD);
+        byte[] bytes = serializer.serialize(jwtUser);
+        assertEquals(RedisConfiguration.FastJsonRedisSerializer.FLAG_LZ4, bytes[2]);
+        JwtUserDto value = (JwtUserDto) serializer.deserialize(bytes);
+        assertEquals(jwtUser.getRoles(), value.getRoles());
+
+        List<Role> roles = roles(200);
+        bytes = serializer.serialize(roles);
+        assertEquals(RedisConfiguration.FastJsonRedisSerializer.FLAG_LZ4, bytes[2]);
+        assertEquals(names(roles), names((List<?>) serializer.deserialize(bytes)));
+    }
+
+    private static Object roundTrip(RedisSerializerProperties.Format format, int threshold, Object value) {
+        RedisConfiguration.FastJsonRedisSerializer<Object> serializer = serializer(format, threshold);
+        return serializer.deserialize(serializer.serialize(value));
+    }
+
+    private static RedisConfiguration.FastJsonRedisSerializer<Object> serializer(RedisSerializerProperties.Format format, int threshold) {
+        RedisSerializerProperties properties = new RedisSerializerProperties();
+        properties.setFormat(format);
+        properties.setCompressThreshold(threshold);
+        return new RedisConfiguration.FastJsonRedisSerializer<>(Object.class, properties);
+    }
+
+    private static JwtUserDto jwtUser(int roleCount) {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        user.setNickName("管理员");
+        user.setEnabled(true);
+        List<AuthorityDto> authorities = new ArrayList<>(roleCount);
+        for (int i = 0; i < roleCount; i++) {
+            authorities.add(new AuthorityDto("role:" + i));
+        }
+        return new JwtUserDto(user, Arrays.asList(1L, 2L), authorities);
+    }
+
+    private static List<Role> roles(int size) {
+        List<Role> roles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Role role = new Role();
+            role.setId((long) i + 1);
+            role.setName("角色" + i);
+            role.setDescription("description " + i);
+            roles.add(role);
+        }
+        return roles;
+    }
+
+    private static List<String> names(List<?> roles) {
+        return roles.stream().map(role -> ((Role) role).getName()).collect(Collectors.toList());
+    }
+}
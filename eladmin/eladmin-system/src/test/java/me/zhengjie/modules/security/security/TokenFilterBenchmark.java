@@ -0,0 +1,85 @@
+package me.zhengjie.modules.security.security;
+
+import cn.hutool.jwt.JWTUtil;
+import io.jsonwebtoken.Claims;
+import me.zhengjie.modules.security.config.SecurityProperties;
+import me.zhengjie.modules.security.service.dto.JwtUserDto;
+import me.zhengjie.modules.system.domain.User;
+import me.zhengjie.utils.TokenContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenFilter 单次请求的 Token 解析开销对比
+ * legacy：原流程，loginKey、checkRenewal、getAuthentication、SecurityUtils 各自解析
+ * parseOnce：解析一次，后续复用 TokenContext
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenFilterBenchmark {
+
+    private TokenProvider tokenProvider;
+    private String token;
+    private String onlineKey;
+
+    @Setup
+    public void setup() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.setBase64Secret("ZmQ0ZGI5NjQ0MDQwY2I4MjMxY2Y3ZmI3MjdhN2ZmMjNhODViOTg1ZGE0NTBjMGM4NDA5NzYxMjdjOWMwYWRmZTBlZjlhNGY3ZTg4Y2U3YTE1ODVkZDU5Y2Y3OGYwZWE1NzUzNWQ2YjFjZDc0NGMxZWU2MmQ3MjY1NzJmNTE0MzI=");
+        properties.setOnlineKey("online_token:");
+        onlineKey = properties.getOnlineKey();
+        // 关闭本地缓存，只对比解析次数带来的开销
+        properties.setTokenCacheSize(0L);
+        tokenProvider = new TokenProvider(null, properties, new TokenCache(properties));
+        tokenProvider.afterPropertiesSet();
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        token = tokenProvider.createToken(new JwtUserDto(user, Collections.emptyList(), Collections.emptyList()));
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        // loginKey：getClaims + getId
+        blackhole.consume(legacyLoginKey());
+        // checkRenewal 内再次计算 loginKey
+        blackhole.consume(legacyLoginKey());
+        // getAuthentication
+        Claims claims = tokenProvider.getClaims(token);
+        blackhole.consume(claims.getSubject());
+        // SecurityUtils.getCurrentUsername
+        blackhole.consume(JWTUtil.parseToken(token).getPayload("sub"));
+    }
+
+    @Benchmark
+    public void parseOnce(Blackhole blackhole) {
+        TokenContext context = tokenProvider.parseToken(token);
+        blackhole.consume(tokenProvider.loginKey(context));
+        blackhole.consume(tokenProvider.loginKey(context));
+        blackhole.consume(tokenProvider.getAuthentication(context));
+        blackhole.consume(context.getUsername());
+    }
+
+    private String legacyLoginKey() {
+        Claims claims = tokenProvider.getClaims(token);
+        String uid = tokenProvider.getClaims(token).get(TokenProvider.AUTHORITIES_UUID_KEY, String.class);
+        return onlineKey + claims.getSubject() + ":" + uid;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TokenFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
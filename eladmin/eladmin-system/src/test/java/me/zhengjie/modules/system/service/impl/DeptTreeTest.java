@@ -0,0 +1,95 @@
+package me.zhengjie.modules.system.service.impl;
+
+import me.zhengjie.modules.system.domain.Dept;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeptTreeTest {
+
+    /**
+     * 1
+     * ├── 2
+     * │   ├── 4
+     * │   └── 5(停用)
+     * │       └── 6
+     * └── 3
+     * 7
+     */
+    private final DeptTree tree = DeptTree.build(1, Arrays.asList(
+            dept(1L, null, 1, true), dept(2L, 1L, 1, true), dept(3L, 1L, 2, true),
+            dept(4L, 2L, 1, true), dept(5L, 2L, 2, false), dept(6L, 5L, 1, true),
+            dept(7L, null, 2, true)), roleDepts());
+
+    @Test
+    public void testSubtree() {
+        assertEquals(Arrays.asList(2L, 4L, 5L, 6L), ids(tree.subtree(2L)));
+        assertEquals(Arrays.asList(1L, 2L, 4L, 5L, 6L, 3L), tree.subtreeIds(1L, false));
+        assertEquals(Arrays.asList(1L, 2L, 4L, 3L), tree.subtreeIds(1L, true));
+        assertTrue(tree.subtreeIds(99L, true).isEmpty());
+    }
+
+    @Test
+    public void testChildrenAndSuperior() {
+        assertEquals(Arrays.asList(1L, 7L), ids(tree.children(null)));
+        assertEquals(Arrays.asList(2L, 3L), ids(tree.children(1L)));
+        // 部门 6 的同级、上级的同级直到顶级部门
+        assertEquals(Arrays.asList(6L, 4L, 5L, 2L, 3L, 1L, 7L), ids(tree.superior(5L)));
+    }
+
+    @Test
+    public void testAncestor() {
+        assertTrue(tree.isAncestor(1L, 6L));
+        assertTrue(tree.isAncestor(6L, 6L));
+        assertFalse(tree.isAncestor(3L, 6L));
+        assertFalse(tree.isAncestor(7L, 1L));
+    }
+
+    @Test
+    public void testRoleScope() {
+        // 角色 1 关联部门 2：停用的部门 5 及其下级被排除
+        assertEquals(Arrays.asList(2L, 4L), tree.toIds(tree.roleScope(1L)));
+        // 直接关联停用的部门时仍包含自身及其启用的下级
+        assertEquals(Arrays.asList(5L, 6L, 3L), tree.toIds(tree.roleScope(2L)));
+        BitSet scope = new BitSet();
+        scope.or(tree.roleScope(1L));
+        scope.or(tree.roleScope(2L));
+        assertEquals(Arrays.asList(2L, 4L, 5L, 6L, 3L), tree.toIds(scope));
+        assertTrue(tree.roleScope(99L).isEmpty());
+    }
+
+    @Test
+    public void testCopy() {
+        tree.get(1L).setName("changed");
+        assertEquals("dept1", tree.getName(1L));
+    }
+
+    private static Map<Long, List<Long>> roleDepts() {
+        Map<Long, List<Long>> roleDepts = new HashMap<>();
+        roleDepts.put(1L, Collections.singletonList(2L));
+        roleDepts.put(2L, Arrays.asList(5L, 3L));
+        return roleDepts;
+    }
+
+    private static List<Long> ids(List<Dept> depts) {
+        return depts.stream().map(Dept::getId).collect(Collectors.toList());
+    }
+
+    private static Dept dept(Long id, Long pid, int sort, boolean enabled) {
+        Dept dept = new Dept();
+        dept.setId(id);
+        dept.setPid(pid);
+        dept.setDeptSort(sort);
+        dept.setEnabled(enabled);
+        dept.setName("dept" + id);
+        return dept;
+    }
+}
@@ -0,0 +1,75 @@
+package me.zhengjie.modules.system.service.impl;
+
+import me.zhengjie.modules.system.domain.Menu;
+import me.zhengjie.modules.system.domain.dto.MenuVo;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MenuTreeTest {
+
+    /**
+     * 1
+     * ├── 2
+     * │   └── 4(按钮)
+     * └── 3
+     * 5
+     */
+    private final MenuTree tree = MenuTree.build(Arrays.asList(
+            menu(1L, null, 1, 0), menu(2L, 1L, 2, 1), menu(3L, 1L, 1, 1),
+            menu(4L, 2L, 1, 2), menu(5L, null, 2, 1)),
+            roleMenus());
+
+    @Test
+    public void testChildrenAndSubtree() {
+        assertEquals(Arrays.asList(1L, 5L), ids(tree.children(null)));
+        assertEquals(Arrays.asList(3L, 2L), ids(tree.children(1L)));
+        assertEquals(Arrays.asList(1L, 3L, 2L, 4L), ids(tree.subtree(1L)));
+        // 菜单 4 的同级、上级的同级直到顶级菜单
+        assertEquals(Arrays.asList(4L, 3L, 2L, 1L, 5L), ids(tree.superior(2L)));
+    }
+
+    @Test
+    public void testMenuVosByRoles() {
+        AtomicInteger builds = new AtomicInteger();
+        List<MenuVo> first = tree.menuVos(Arrays.asList(2L, 1L), menus -> {
+            builds.incrementAndGet();
+            // 角色 1 只有菜单 1、2、4，角色 2 只有菜单 5，按钮 4 不出现
+            assertEquals(Arrays.asList(1L, 5L), ids(menus));
+            assertEquals(Collections.singletonList(2L), ids(menus.get(0).getChildren()));
+            assertNull(menus.get(0).getChildren().get(0).getChildren());
+            return new ArrayList<>();
+        });
+        List<MenuVo> second = tree.menuVos(new HashSet<>(Arrays.asList(1L, 2L)), menus -> {
+            builds.incrementAndGet();
+            return new ArrayList<>();
+        });
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+    }
+
+    private static Map<Long, List<Long>> roleMenus() {
+        Map<Long, List<Long>> roleMenus = new HashMap<>();
+        roleMenus.put(1L, Arrays.asList(1L, 2L, 4L));
+        roleMenus.put(2L, Collections.singletonList(5L));
+        return roleMenus;
+    }
+
+    private static List<Long> ids(List<Menu> menus) {
+        return menus.stream().map(Menu::getId).collect(Collectors.toList());
+    }
+
+    private static Menu menu(Long id, Long pid, int sort, int type) {
+        Menu menu = new Menu();
+        menu.setId(id);
+        menu.setPid(pid);
+        menu.setMenuSort(sort);
+        menu.setType(type);
+        menu.setTitle("menu" + id);
+        return menu;
+    }
+}
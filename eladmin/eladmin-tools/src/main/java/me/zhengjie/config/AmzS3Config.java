@@ -60,6 +60,29 @@ public class AmzS3Config {
 	 */
 	private String timeformat;
 
+	/**
+	 * 分片上传时每个分片的大小/MB，S3 要求除最后一个分片外不小于 5MB。
+	 */
+	private int partSize = 8;
+
+	/**
+	 * 文件超过该大小/MB 时使用分片上传，否则使用单个 PUT 请求。
+	 */
+	private int multipartThreshold = 16;
+
+	/**
+	 * 同时上传的分片数，所有上传共用，缓存在内存中的分片数不超过该值的 2 倍。
+	 */
+	private int uploadConcurrency = 4;
+
+	/**
+	 * 分片大小/字节
+	 * @return /
+	 */
+	public long getPartSizeBytes() {
+		return Math.max(partSize, 5) * 1024L * 1024L;
+	}
+
 	/**
 	 * 创建并返回一个 AmazonS3 客户端实例。
 	 * 使用当前配置类的 endPoint, region, accessKey 和 secretKey。
@@ -0,0 +1,55 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.domain;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Getter;
+import lombok.Setter;
+import java.io.Serializable;
+import java.sql.Timestamp;
+
+/**
+ * 按内容存储的文件，同一路径只保存一份，ref_count 为引用该文件的记录数
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Getter
+@Setter
+@TableName("tool_file_blob")
+public class FileBlob implements Serializable {
+
+    @TableId(value = "blob_id", type = IdType.AUTO)
+    @ApiModelProperty(value = "ID", hidden = true)
+    private Long id;
+
+    @ApiModelProperty(value = "文件摘要，SHA-256")
+    private String digest;
+
+    @ApiModelProperty(value = "存储路径")
+    private String path;
+
+    @ApiModelProperty(value = "文件大小/字节")
+    private Long size;
+
+    @ApiModelProperty(value = "引用数")
+    private Integer refCount;
+
+    @ApiModelProperty(value = "创建时间")
+    private Timestamp createTime;
+}
@@ -57,6 +57,9 @@ public class LocalStorage extends BaseEntity implements Serializable {
     @ApiModelProperty(value = "大小")
     private String size;
 
+    @ApiModelProperty(value = "文件摘要，SHA-256", hidden = true)
+    private String digest;
+
     public LocalStorage(String realName,String name, String suffix, String path, String type, String size) {
         this.realName = realName;
         this.name = name;
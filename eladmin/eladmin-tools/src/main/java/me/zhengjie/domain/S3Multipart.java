@@ -0,0 +1,69 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.domain;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import me.zhengjie.base.BaseEntity;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 未完成的 S3 分片上传，保存 uploadId 用于断点续传，完成或取消后删除
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Data
+@TableName("tool_s3_multipart")
+@EqualsAndHashCode(callSuper = true)
+public class S3Multipart extends BaseEntity implements Serializable {
+
+    @TableId(value = "multipart_id", type = IdType.AUTO)
+    @ApiModelProperty(value = "ID")
+    private Long id;
+
+    @ApiModelProperty(value = "S3 分片上传ID", hidden = true)
+    private String uploadId;
+
+    @ApiModelProperty(value = "文件名称")
+    private String fileName;
+
+    @ApiModelProperty(value = "存储路径")
+    private String filePath;
+
+    @ApiModelProperty(value = "文件大小/字节")
+    private Long fileSize;
+
+    @ApiModelProperty(value = "分片大小/字节")
+    private Long partSize;
+
+    @TableField(exist = false)
+    @ApiModelProperty(value = "已上传的分片序号")
+    private List<Integer> uploadedParts;
+
+    /**
+     * 分片总数
+     * @return /
+     */
+    public int getPartCount() {
+        return (int) ((fileSize + partSize - 1) / partSize);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import me.zhengjie.domain.FileBlob;
+import org.apache.ibatis.annotations.*;
+
+/**
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Mapper
+public interface FileBlobMapper extends BaseMapper<FileBlob> {
+
+    /**
+     * 新增文件或引用数加一，依赖 path 的唯一索引，并发上传同一内容时由数据库保证原子性
+     */
+    @Insert("insert into tool_file_blob (digest, path, size, ref_count, create_time) " +
+            "values (#{digest}, #{path}, #{size}, 1, now()) on duplicate key update ref_count = ref_count + 1")
+    void acquire(@Param("digest") String digest, @Param("path") String path, @Param("size") long size);
+
+    @Select("select blob_id as id, digest, path, size, ref_count, create_time from tool_file_blob where path = #{path} for update")
+    FileBlob lockByPath(@Param("path") String path);
+
+    @Update("update tool_file_blob set ref_count = ref_count - 1 where blob_id = #{id}")
+    void decrement(@Param("id") Long id);
+}
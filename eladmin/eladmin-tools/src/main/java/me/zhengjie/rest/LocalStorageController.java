@@ -31,6 +31,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.annotations.*;
 import org.springframework.web.multipart.MultipartFile;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
@@ -61,6 +62,13 @@ public class LocalStorageController {
         localStorageService.download(localStorageService.queryAll(criteria), response);
     }
 
+    @ApiOperation("下载文件")
+    @GetMapping(value = "/{id}/file")
+    @PreAuthorize("@el.check('storage:list')")
+    public void downloadFile(HttpServletRequest request, HttpServletResponse response, @PathVariable Long id) throws IOException {
+        localStorageService.downloadFile(id, request, response);
+    }
+
     @PostMapping
     @ApiOperation("上传文件")
     public ResponseEntity<Object> createFile(@RequestParam String name, @RequestParam("file") MultipartFile file){
@@ -23,6 +23,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.zhengjie.annotation.Log;
 import me.zhengjie.config.AmzS3Config;
+import me.zhengjie.domain.S3Multipart;
 import me.zhengjie.domain.S3Storage;
 import me.zhengjie.domain.dto.S3StorageQueryCriteria;
 import me.zhengjie.service.S3StorageService;
@@ -79,6 +80,43 @@ public class S3StorageController {
         return new ResponseEntity<>(map,HttpStatus.OK);
     }
 
+    @PostMapping(value = "/multipart")
+    @ApiOperation("开始分片上传")
+    public ResponseEntity<S3Multipart> initMultipart(@RequestParam String fileName, @RequestParam long fileSize){
+        return new ResponseEntity<>(s3StorageService.initMultipart(fileName, fileSize),HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/multipart/{id}")
+    @ApiOperation("断点续传")
+    public ResponseEntity<S3Multipart> resumeMultipart(@PathVariable Long id){
+        return new ResponseEntity<>(s3StorageService.resumeMultipart(id),HttpStatus.OK);
+    }
+
+    @PutMapping(value = "/multipart/{id}/{partNumber}")
+    @ApiOperation("上传分片")
+    public ResponseEntity<Object> uploadPart(@PathVariable Long id, @PathVariable int partNumber, @RequestParam MultipartFile file){
+        s3StorageService.uploadPart(id, partNumber, file);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/multipart/{id}/complete")
+    @ApiOperation("完成分片上传")
+    public ResponseEntity<Object> completeMultipart(@PathVariable Long id){
+        S3Storage storage = s3StorageService.completeMultipart(id);
+        Map<String,Object> map = new HashMap<>(3);
+        map.put("id",storage.getId());
+        map.put("errno",0);
+        map.put("data",new String[]{amzS3Config.getDomain() + "/" + storage.getFilePath()});
+        return new ResponseEntity<>(map,HttpStatus.OK);
+    }
+
+    @DeleteMapping(value = "/multipart/{id}")
+    @ApiOperation("取消分片上传")
+    public ResponseEntity<Object> abortMultipart(@PathVariable Long id){
+        s3StorageService.abortMultipart(id);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
     @Log("下载文件")
     @ApiOperation("下载文件")
     @GetMapping(value = "/download/{id}")
@@ -0,0 +1,42 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.service;
+
+import com.baomidou.mybatisplus.extension.service.IService;
+import me.zhengjie.domain.FileBlob;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * 按内容存储文件，内容相同的文件只保存一份，通过引用计数决定何时删除
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+public interface FileBlobService extends IService<FileBlob> {
+
+    /**
+     * 保存上传的文件，存储为 目录/摘要.后缀，已存在时只增加引用数
+     * @param file 上传的文件
+     * @param dir 存储目录
+     * @return 文件信息
+     */
+    FileBlob save(MultipartFile file, String dir);
+
+    /**
+     * 释放文件，引用数为 0 时删除文件，不是按内容存储的文件直接删除
+     * @param path 文件路径
+     */
+    void release(String path);
+}
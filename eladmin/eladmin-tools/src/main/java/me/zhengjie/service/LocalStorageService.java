@@ -21,6 +21,7 @@ import me.zhengjie.domain.LocalStorage;
 import me.zhengjie.domain.dto.LocalStorageQueryCriteria;
 import me.zhengjie.utils.PageResult;
 import org.springframework.web.multipart.MultipartFile;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
@@ -74,4 +75,13 @@ public interface LocalStorageService extends IService<LocalStorage> {
      * @throws IOException /
      */
     void download(List<LocalStorage> localStorages, HttpServletResponse response) throws IOException;
+
+    /**
+     * 下载文件，支持断点续传与浏览器缓存
+     * @param id 文件ID
+     * @param request /
+     * @param response /
+     * @throws IOException /
+     */
+    void downloadFile(Long id, HttpServletRequest request, HttpServletResponse response) throws IOException;
 }
\ No newline at end of file
@@ -15,6 +15,7 @@
 */
 package me.zhengjie.service;
 
+import me.zhengjie.domain.S3Multipart;
 import me.zhengjie.domain.S3Storage;
 import me.zhengjie.domain.dto.S3StorageQueryCriteria;
 import java.util.Map;
@@ -80,4 +81,40 @@ public interface S3StorageService extends IService<S3Storage> {
      * @return S3Storage 对象，包含文件存储信息
      */
     S3Storage upload(MultipartFile file);
+
+    /**
+     * 开始分片上传
+     * @param fileName 文件名
+     * @param fileSize 文件大小/字节
+     * @return 分片上传信息
+     */
+    S3Multipart initMultipart(String fileName, long fileSize);
+
+    /**
+     * 断点续传，查询开始上传时返回的分片上传及已上传的分片
+     * @param id 分片上传ID
+     * @return 分片上传信息
+     */
+    S3Multipart resumeMultipart(Long id);
+
+    /**
+     * 上传一个分片，同一上传的分片可以并行上传
+     * @param id 分片上传ID
+     * @param partNumber 分片序号，从 1 开始
+     * @param part 分片内容
+     */
+    void uploadPart(Long id, int partNumber, MultipartFile part);
+
+    /**
+     * 所有分片上传后合并文件
+     * @param id 分片上传ID
+     * @return S3Storage 对象，包含文件存储信息
+     */
+    S3Storage completeMultipart(Long id);
+
+    /**
+     * 取消分片上传，删除已上传的分片
+     * @param id 分片上传ID
+     */
+    void abortMultipart(Long id);
 }
\ No newline at end of file
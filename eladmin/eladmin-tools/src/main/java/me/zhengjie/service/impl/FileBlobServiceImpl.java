@@ -0,0 +1,142 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.service.impl;
+
+import cn.hutool.core.util.HexUtil;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import me.zhengjie.domain.FileBlob;
+import me.zhengjie.exception.BadRequestException;
+import me.zhengjie.mapper.FileBlobMapper;
+import me.zhengjie.service.FileBlobService;
+import me.zhengjie.utils.FileUtil;
+import me.zhengjie.utils.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.regex.Pattern;
+
+/**
+ * 上传时先写入存储目录下的临时目录并计算摘要，再移动到 摘要.后缀，内容已存在时删除临时文件
+ * 引用数的增减在持有该行锁的事务中完成，文件在事务提交后才删除，调用方回滚时文件仍然存在
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Slf4j
+@Service
+public class FileBlobServiceImpl extends ServiceImpl<FileBlobMapper, FileBlob> implements FileBlobService {
+
+    /** 临时目录与存储目录在同一磁盘，移动文件不需要复制 */
+    private static final String STAGING = ".staging";
+    /** 按内容存储的文件名：摘要.后缀，其他文件名带有时间戳，不会匹配 */
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}(\\.[^.]*)?");
+
+    private final FileBlobMapper fileBlobMapper;
+    private final TransactionTemplate requiresNew;
+
+    public FileBlobServiceImpl(FileBlobMapper fileBlobMapper, PlatformTransactionManager transactionManager) {
+        this.fileBlobMapper = fileBlobMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public FileBlob save(MultipartFile multipartFile, String dir) {
+        MessageDigest digest = FileUtil.newDigest(FileUtil.SHA256);
+        File temp = FileUtil.upload(multipartFile, dir + STAGING + File.separator, digest);
+        if (temp == null) {
+            throw new BadRequestException("上传失败");
+        }
+        try {
+            String hash = HexUtil.encodeHexStr(digest.digest());
+            String suffix = FileUtil.getExtensionName(multipartFile.getOriginalFilename());
+            String name = StringUtils.isBlank(suffix) ? hash : hash + "." + suffix;
+            File target = new File(dir, name).getCanonicalFile();
+            // 先增加引用数，持有行锁后再确认文件是否存在
+            fileBlobMapper.acquire(hash, target.getPath(), temp.length());
+            if (!target.exists()) {
+                try {
+                    Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException ignored) {
+                    // 文件已由其他请求写入，内容相同
+                }
+            }
+            return fileBlobMapper.lockByPath(target.getPath());
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            throw new BadRequestException("上传失败");
+        } finally {
+            FileUtil.del(temp);
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void release(String path) {
+        if (StringUtils.isBlank(path)) {
+            return;
+        }
+        // 未开启按内容存储时不访问 tool_file_blob 表
+        FileBlob blob = BLOB_NAME.matcher(new File(path).getName()).matches() ? fileBlobMapper.lockByPath(path) : null;
+        if (blob == null) {
+            delAfterCommit(path, false);
+        } else if (blob.getRefCount() <= 1) {
+            removeById(blob.getId());
+            delAfterCommit(path, true);
+        } else {
+            fileBlobMapper.decrement(blob.getId());
+        }
+    }
+
+    /**
+     * 事务提交后删除文件
+     * 按内容存储的文件在新事务中锁定该路径，确认提交前没有被重新上传后才删除
+     */
+    private void delAfterCommit(String path, boolean blob) {
+        Runnable del = blob ? () -> requiresNew.executeWithoutResult(status -> {
+            if (fileBlobMapper.lockByPath(path) == null) {
+                FileUtil.del(path);
+            }
+        }) : () -> FileUtil.del(path);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // 数据已提交，删除失败只留下无引用的文件
+                    try {
+                        del.run();
+                    } catch (Exception e) {
+                        log.error("Failed to delete {}: {}", path, e.getMessage(), e);
+                    }
+                }
+            });
+        } else {
+            del.run();
+        }
+    }
+}
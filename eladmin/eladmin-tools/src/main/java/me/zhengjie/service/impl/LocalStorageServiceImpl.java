@@ -15,26 +15,31 @@
  */
 package me.zhengjie.service.impl;
 
+import cn.hutool.core.util.HexUtil;
 import cn.hutool.core.util.ObjectUtil;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import me.zhengjie.config.properties.FileProperties;
+import me.zhengjie.domain.FileBlob;
 import me.zhengjie.domain.LocalStorage;
 import me.zhengjie.domain.dto.LocalStorageQueryCriteria;
 import me.zhengjie.exception.BadRequestException;
 import me.zhengjie.mapper.LocalStorageMapper;
 import me.zhengjie.utils.*;
+import me.zhengjie.service.FileBlobService;
 import me.zhengjie.service.LocalStorageService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.io.File;
 import java.io.IOException;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.springframework.web.multipart.MultipartFile;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 /**
@@ -47,6 +52,7 @@ public class LocalStorageServiceImpl extends ServiceImpl<LocalStorageMapper, Loc
 
     private final LocalStorageMapper localStorageMapper;
     private final FileProperties properties;
+    private final FileBlobService fileBlobService;
 
     @Override
     public PageResult<LocalStorage> queryAll(LocalStorageQueryCriteria criteria, Page<Object> page){
@@ -64,9 +70,22 @@ public class LocalStorageServiceImpl extends ServiceImpl<LocalStorageMapper, Loc
         FileUtil.checkSize(properties.getMaxSize(), multipartFile.getSize());
         String suffix = FileUtil.getExtensionName(multipartFile.getOriginalFilename());
         String type = FileUtil.getFileType(suffix);
-        File file = FileUtil.upload(multipartFile, properties.getPath().getPath() + type +  File.separator);
-        if(ObjectUtil.isNull(file)){
-            throw new BadRequestException("上传失败");
+        String dir = properties.getPath().getPath() + type +  File.separator;
+        File file;
+        String digest;
+        if (properties.isDedup()) {
+            // 按内容存储，相同文件只保存一份，保存失败时引用数随事务回滚
+            FileBlob blob = fileBlobService.save(multipartFile, dir);
+            file = new File(blob.getPath());
+            digest = blob.getDigest();
+        } else {
+            // 写入的同时计算摘要，不需要再次读取文件
+            MessageDigest messageDigest = FileUtil.newDigest(FileUtil.SHA256);
+            file = FileUtil.upload(multipartFile, dir, messageDigest);
+            if(ObjectUtil.isNull(file)){
+                throw new BadRequestException("上传失败");
+            }
+            digest = HexUtil.encodeHexStr(messageDigest.digest());
         }
         try {
             name = StringUtils.isBlank(name) ? FileUtil.getFileNameNoEx(multipartFile.getOriginalFilename()) : name;
@@ -78,10 +97,13 @@ public class LocalStorageServiceImpl extends ServiceImpl<LocalStorageMapper, Loc
                     type,
                     FileUtil.getSize(multipartFile.getSize())
             );
+            localStorage.setDigest(digest);
             save(localStorage);
             return localStorage;
         }catch (Exception e){
-            FileUtil.del(file);
+            if (!properties.isDedup()) {
+                FileUtil.del(file);
+            }
             throw e;
         }
     }
@@ -90,6 +112,8 @@ public class LocalStorageServiceImpl extends ServiceImpl<LocalStorageMapper, Loc
     @Transactional(rollbackFor = Exception.class)
     public void update(LocalStorage resources) {
         LocalStorage localStorage = getById(resources.getId());
+        // 摘要在上传时计算，不允许修改
+        resources.setDigest(null);
         localStorage.copy(resources);
         saveOrUpdate(localStorage);
     }
@@ -99,7 +123,8 @@ public class LocalStorageServiceImpl extends ServiceImpl<LocalStorageMapper, Loc
     public void deleteAll(Long[] ids) {
         for (Long id : ids) {
             LocalStorage storage = getById(id);
-            FileUtil.del(storage.getPath());
+            // 按内容存储的文件可能被多条记录引用，由引用数决定是否删除
+            fileBlobService.release(storage.getPath());
             removeById(storage);
         }
     }
@@ -119,4 +144,18 @@ public class LocalStorageServiceImpl extends ServiceImpl<LocalStorageMapper, Loc
         }
         FileUtil.downloadExcel(list, response);
     }
+
+    @Override
+    public void downloadFile(Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        LocalStorage storage = getById(id);
+        if (storage == null) {
+            throw new BadRequestException("文件不存在");
+        }
+        File file = new File(storage.getPath());
+        if (!file.isFile()) {
+            throw new BadRequestException("文件不存在");
+        }
+        String fileName = StringUtils.isBlank(storage.getSuffix()) ? storage.getName() : storage.getName() + "." + storage.getSuffix();
+        FileUtil.downloadRange(request, response, file, fileName, null, storage.getDigest(), properties.getCacheMaxAge());
+    }
 }
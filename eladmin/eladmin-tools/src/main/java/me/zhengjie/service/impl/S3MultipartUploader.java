@@ -0,0 +1,216 @@
+/*
+ *  Copyright 2019-2025 Zheng Jie
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package me.zhengjie.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import me.zhengjie.config.AmzS3Config;
+import me.zhengjie.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * S3 分片上传
+ * 大文件按 amz.s3.partSize 切分，在有界线程池中并行上传，任一分片失败时取消整个上传，不会留下未完成的分片
+ * 缓存在内存中的分片数由信号量限制，读取速度快于上传时阻塞读取线程，任一分片失败后停止读取
+ * @author Zheng Jie
+ * @date 2026-10-17
+ */
+@Slf4j
+@Component
+public class S3MultipartUploader {
+
+    /** S3 单次上传的最大分片数 */
+    public static final int MAX_PARTS = 10000;
+
+    private final S3Client s3Client;
+    private final AmzS3Config config;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore buffers;
+
+    public S3MultipartUploader(S3Client s3Client, AmzS3Config config) {
+        this.s3Client = s3Client;
+        this.config = config;
+        int concurrency = Math.max(config.getUploadConcurrency(), 1);
+        AtomicInteger index = new AtomicInteger(1);
+        ThreadFactory factory = r -> {
+            Thread thread = new Thread(r, "el-s3-upload-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // 在途分片不超过 2 倍并发数，队列不会溢出
+        this.buffers = new Semaphore(concurrency * 2);
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(concurrency), factory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 上传文件，超过 amz.s3.multipartThreshold 时分片并行上传
+     * @param bucket 存储桶
+     * @param key 文件路径
+     * @param in 输入流，不会关闭
+     * @param size 文件大小
+     * @param contentType 文件类型
+     */
+    public void upload(String bucket, String key, InputStream in, long size, String contentType) throws IOException {
+        if (size <= config.getMultipartThreshold() * 1024L * 1024L) {
+            s3Client.putObject(PutObjectRequest.builder().bucket(bucket).key(key).contentType(contentType).build(),
+                    RequestBody.fromInputStream(in, size));
+            return;
+        }
+        long partSize = partSize(size);
+        String uploadId = create(bucket, key, contentType);
+        List<Future<CompletedPart>> futures = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+                buffers.acquire();
+                // 已有分片失败时不再继续读取
+                if (failure.get() != null) {
+                    buffers.release();
+                    throw new ExecutionException(failure.get());
+                }
+                byte[] buffer;
+                try {
+                    buffer = new byte[(int) Math.min(partSize, size - offset)];
+                    readFully(in, buffer);
+                } catch (IOException | RuntimeException e) {
+                    buffers.release();
+                    throw e;
+                }
+                int number = partNumber;
+                futures.add(executor.submit(() -> {
+                    try {
+                        return uploadPart(bucket, key, uploadId, number, RequestBody.fromBytes(buffer));
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                        throw e;
+                    } finally {
+                        buffers.release();
+                    }
+                }));
+            }
+            List<CompletedPart> parts = new ArrayList<>(futures.size());
+            for (Future<CompletedPart> future : futures) {
+                parts.add(future.get());
+            }
+            complete(bucket, key, uploadId, parts);
+        } catch (Exception e) {
+            // 等待已提交的分片结束后再取消上传，未执行的任务也需要释放信号量
+            awaitQuietly(futures);
+            abort(bucket, key, uploadId);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            log.error("S3 multipart upload {} failed: {}", key, cause.getMessage(), cause);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new BadRequestException("上传文件到 S3 失败: " + cause.getMessage());
+        }
+    }
+
+    /**
+     * 根据文件大小计算分片大小，分片数超过 S3 上限时加大分片
+     * @param size 文件大小
+     * @return /
+     */
+    public long partSize(long size) {
+        long partSize = config.getPartSizeBytes();
+        long min = (size + MAX_PARTS - 1) / MAX_PARTS;
+        return Math.max(partSize, min);
+    }
+
+    public String create(String bucket, String key, String contentType) {
+        return s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket).key(key).contentType(contentType).build()).uploadId();
+    }
+
+    public CompletedPart uploadPart(String bucket, String key, String uploadId, int partNumber, RequestBody body) {
+        UploadPartResponse response = s3Client.uploadPart(UploadPartRequest.builder()
+                .bucket(bucket).key(key).uploadId(uploadId).partNumber(partNumber).build(), body);
+        return CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build();
+    }
+
+    /**
+     * 查询已上传的分片，用于断点续传
+     * @return 按分片序号排序
+     */
+    public List<CompletedPart> listParts(String bucket, String key, String uploadId) {
+        return s3Client.listPartsPaginator(ListPartsRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build())
+                .parts().stream()
+                .map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.eTag()).build())
+                .sorted(Comparator.comparing(CompletedPart::partNumber))
+                .collect(Collectors.toList());
+    }
+
+    public void complete(String bucket, String key, String uploadId, List<CompletedPart> parts) {
+        s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket).key(key).uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                .build());
+    }
+
+    public void abort(String bucket, String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket).key(key).uploadId(uploadId).build());
+        } catch (NoSuchUploadException e) {
+            log.warn("S3 multipart upload {} not found", uploadId);
+        } catch (S3Exception e) {
+            log.error("Failed to abort S3 multipart upload {}: {}", uploadId, e.getMessage());
+        }
+    }
+
+    private static void awaitQuietly(List<Future<CompletedPart>> futures) {
+        for (Future<CompletedPart> future : futures) {
+            try {
+                future.get();
+            } catch (Exception ignored) {
+                // 只需等待结束
+            }
+        }
+    }
+
+    private static void readFully(InputStream in, byte[] buffer) throws IOException {
+        int offset = 0;
+        while (offset < buffer.length) {
+            int read = in.read(buffer, offset, buffer.length - offset);
+            if (read < 0) {
+                throw new IOException("文件内容不完整");
+            }
+            offset += read;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
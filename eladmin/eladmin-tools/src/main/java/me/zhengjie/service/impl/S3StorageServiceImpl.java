@@ -19,6 +19,7 @@ import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.util.IdUtil;
 import lombok.extern.slf4j.Slf4j;
 import me.zhengjie.config.AmzS3Config;
+import me.zhengjie.domain.S3Multipart;
 import me.zhengjie.domain.S3Storage;
 import me.zhengjie.exception.BadRequestException;
 import me.zhengjie.utils.FileUtil;
@@ -27,7 +28,9 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import me.zhengjie.service.S3StorageService;
 import me.zhengjie.domain.dto.S3StorageQueryCriteria;
+import me.zhengjie.mapper.S3MultipartMapper;
 import me.zhengjie.mapper.S3StorageMapper;
+import me.zhengjie.utils.SecurityUtils;
 import me.zhengjie.utils.StringUtils;
 import org.apache.commons.io.IOUtils;
 import org.springframework.stereotype.Service;
@@ -35,6 +38,8 @@ import org.springframework.transaction.annotation.Transactional;
 import me.zhengjie.utils.PageUtil;
 import java.util.*;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletResponse;
 import me.zhengjie.utils.PageResult;
 import org.springframework.web.multipart.MultipartFile;
@@ -58,6 +63,11 @@ public class S3StorageServiceImpl extends ServiceImpl<S3StorageMapper, S3Storage
     private final S3Client s3Client;
     private final AmzS3Config amzS3Config;
     private final S3StorageMapper s3StorageMapper;
+    private final S3MultipartMapper s3MultipartMapper;
+    private final S3MultipartUploader s3MultipartUploader;
+
+    /** 已确认存在的存储桶，不再每次上传都发送 headBucket 请求，存储桶被删除时重置 */
+    private volatile String checkedBucket;
 
     @Override
     public PageResult<S3Storage> queryAll(S3StorageQueryCriteria criteria, Page<Object> page){
@@ -80,8 +90,11 @@ public class S3StorageServiceImpl extends ServiceImpl<S3StorageMapper, S3Storage
     public void deleteAll(List<Long> ids) {
         // 检查桶是否存在
         String bucketName = amzS3Config.getDefaultBucket();
-        if (!bucketExists(bucketName)) {
-            throw new BadRequestException("存储桶不存在，请检查配置或权限。");
+        if (!bucketName.equals(checkedBucket)) {
+            if (!bucketExists(bucketName)) {
+                throw new BadRequestException("存储桶不存在，请检查配置或权限。");
+            }
+            checkedBucket = bucketName;
         }
         // 遍历 ID 列表，删除对应的文件和数据库记录
         for (Long id : ids) {
@@ -111,46 +124,138 @@ public class S3StorageServiceImpl extends ServiceImpl<S3StorageMapper, S3Storage
     public S3Storage upload(MultipartFile file) {
         String bucketName = amzS3Config.getDefaultBucket();
         // 检查存储桶是否存在
-        if (!bucketExists(bucketName)) {
-            log.warn("存储桶 {} 不存在，尝试创建...", bucketName);
-            if (createBucket(bucketName)){
-                log.info("存储桶 {} 创建成功。", bucketName);
-            } else {
-                throw new BadRequestException("存储桶创建失败，请检查配置或权限。");
-            }
-        }
+        ensureBucket(bucketName);
         // 获取文件名
         String originalName = file.getOriginalFilename();
         if (StringUtils.isBlank(originalName)) {
             throw new IllegalArgumentException("文件名不能为空");
         }
         // 生成存储路径和文件名
-        String folder = DateUtil.format(new Date(), amzS3Config.getTimeformat());
-        String fileName = IdUtil.simpleUUID() + "." + FileUtil.getExtensionName(originalName);
-        String filePath = folder + "/" + fileName;
-        // 构建上传请求
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(amzS3Config.getDefaultBucket())
-                .key(filePath)
-                .build();
-        // 创建 S3Storage 实例
-        S3Storage s3Storage = new S3Storage();
-        try {
-            // 上传文件到 S3
-            s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-            // 设置 S3Storage 属性
-            s3Storage.setFileMimeType(FileUtil.getMimeType(originalName));
-            s3Storage.setFileName(originalName);
-            s3Storage.setFileRealName(fileName);
-            s3Storage.setFileSize(FileUtil.getSize(file.getSize()));
-            s3Storage.setFileType(FileUtil.getExtensionName(originalName));
-            s3Storage.setFilePath(filePath);
-            // 保存入库
-            s3StorageMapper.insert(s3Storage);
+        String filePath = newFilePath(originalName);
+        try (InputStream in = file.getInputStream()) {
+            // 上传文件到 S3，超过阈值时分片并行上传
+            s3MultipartUploader.upload(bucketName, filePath, in, file.getSize(), FileUtil.getMimeType(originalName));
+        } catch (NoSuchBucketException e) {
+            checkedBucket = null;
+            throw new BadRequestException("存储桶不存在，请重试");
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        // 设置地址
+        // 保存入库
+        return save(originalName, filePath, file.getSize());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public S3Multipart initMultipart(String fileName, long fileSize) {
+        if (StringUtils.isBlank(fileName) || fileSize <= 0) {
+            throw new BadRequestException("文件名与文件大小不能为空");
+        }
+        String bucketName = amzS3Config.getDefaultBucket();
+        ensureBucket(bucketName);
+        S3Multipart multipart = new S3Multipart();
+        multipart.setFileName(fileName);
+        multipart.setFileSize(fileSize);
+        multipart.setFilePath(newFilePath(fileName));
+        multipart.setPartSize(s3MultipartUploader.partSize(fileSize));
+        multipart.setUploadId(s3MultipartUploader.create(bucketName, multipart.getFilePath(), FileUtil.getMimeType(fileName)));
+        s3MultipartMapper.insert(multipart);
+        multipart.setUploadedParts(Collections.emptyList());
+        return multipart;
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public S3Multipart resumeMultipart(Long id) {
+        S3Multipart multipart = getMultipart(id);
+        try {
+            // 已上传的分片以 S3 中的记录为准
+            multipart.setUploadedParts(s3MultipartUploader.listParts(amzS3Config.getDefaultBucket(), multipart.getFilePath(), multipart.getUploadId())
+                    .stream().map(CompletedPart::partNumber).collect(Collectors.toList()));
+            return multipart;
+        } catch (NoSuchUploadException e) {
+            // 上传已在 S3 中被取消或清理
+            s3MultipartMapper.deleteById(id);
+            throw new BadRequestException("上传任务已失效，请重新上传");
+        }
+    }
+
+    @Override
+    public void uploadPart(Long id, int partNumber, MultipartFile part) {
+        S3Multipart multipart = getMultipart(id);
+        int partCount = multipart.getPartCount();
+        if (partNumber < 1 || partNumber > partCount) {
+            throw new BadRequestException("分片序号应在 1 到 " + partCount + " 之间");
+        }
+        // 除最后一个分片外大小必须一致
+        long expected = partNumber < partCount ? multipart.getPartSize()
+                : multipart.getFileSize() - (partCount - 1) * multipart.getPartSize();
+        if (part.getSize() != expected) {
+            throw new BadRequestException("分片 " + partNumber + " 的大小应为 " + expected + " 字节");
+        }
+        try (InputStream in = part.getInputStream()) {
+            s3MultipartUploader.uploadPart(amzS3Config.getDefaultBucket(), multipart.getFilePath(), multipart.getUploadId(),
+                    partNumber, RequestBody.fromInputStream(in, expected));
+        } catch (IOException e) {
+            throw new BadRequestException("读取分片失败: " + e.getMessage());
+        }
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public S3Storage completeMultipart(Long id) {
+        S3Multipart multipart = getMultipart(id);
+        String bucketName = amzS3Config.getDefaultBucket();
+        List<CompletedPart> parts = s3MultipartUploader.listParts(bucketName, multipart.getFilePath(), multipart.getUploadId());
+        int missing = multipart.getPartCount() - parts.size();
+        if (missing > 0) {
+            throw new BadRequestException("还有 " + missing + " 个分片未上传");
+        }
+        s3MultipartUploader.complete(bucketName, multipart.getFilePath(), multipart.getUploadId(), parts);
+        s3MultipartMapper.deleteById(id);
+        return save(multipart.getFileName(), multipart.getFilePath(), multipart.getFileSize());
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void abortMultipart(Long id) {
+        S3Multipart multipart = getMultipart(id);
+        s3MultipartUploader.abort(amzS3Config.getDefaultBucket(), multipart.getFilePath(), multipart.getUploadId());
+        s3MultipartMapper.deleteById(id);
+    }
+
+    /**
+     * 获取当前用户的分片上传
+     */
+    private S3Multipart getMultipart(Long id) {
+        S3Multipart multipart = s3MultipartMapper.selectById(id);
+        if (multipart == null || !multipart.getCreateBy().equals(SecurityUtils.getCurrentUsername())) {
+            throw new BadRequestException("上传任务不存在或已完成");
+        }
+        return multipart;
+    }
+
+    /**
+     * 生成存储路径：时间目录/随机文件名
+     */
+    private String newFilePath(String originalName) {
+        String folder = DateUtil.format(new Date(), amzS3Config.getTimeformat());
+        String fileName = IdUtil.simpleUUID() + "." + FileUtil.getExtensionName(originalName);
+        return folder + "/" + fileName;
+    }
+
+    /**
+     * 保存文件记录
+     */
+    private S3Storage save(String originalName, String filePath, long size) {
+        S3Storage s3Storage = new S3Storage();
+        s3Storage.setFileMimeType(FileUtil.getMimeType(originalName));
+        s3Storage.setFileName(originalName);
+        s3Storage.setFileRealName(filePath.substring(filePath.lastIndexOf('/') + 1));
+        s3Storage.setFileSize(FileUtil.getSize(size));
+        s3Storage.setFileType(FileUtil.getExtensionName(originalName));
+        s3Storage.setFilePath(filePath);
+        s3StorageMapper.insert(s3Storage);
         return s3Storage;
     }
 
@@ -210,6 +315,25 @@ public class S3StorageServiceImpl extends ServiceImpl<S3StorageMapper, S3Storage
         return responseData;
     }
 
+    /**
+     * 确保存储桶存在，不存在时创建，确认后不再重复检查
+     * @param bucketName 存储桶名称
+     */
+    private void ensureBucket(String bucketName) {
+        if (bucketName.equals(checkedBucket)) {
+            return;
+        }
+        if (!bucketExists(bucketName)) {
+            log.warn("存储桶 {} 不存在，尝试创建...", bucketName);
+            if (createBucket(bucketName)){
+                log.info("存储桶 {} 创建成功。", bucketName);
+            } else {
+                throw new BadRequestException("存储桶创建失败，请检查配置或权限。");
+            }
+        }
+        checkedBucket = bucketName;
+    }
+
     /**
      * 检查云存储桶是否存在
      * @param bucketName 存储桶名称
@@ -0,0 +1,111 @@
+package me.zhengjie.service.impl;
+
+import me.zhengjie.config.AmzS3Config;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 需要本地 S3 服务，例如 MinIO：
+ * docker run -p 9000:9000 minio/minio server /data
+ * S3_TEST_ENDPOINT=http://127.0.0.1:9000 mvn test
+ */
+@EnabledIfEnvironmentVariable(named = "S3_TEST_ENDPOINT", matches = ".+")
+public class S3MultipartUploaderTest {
+
+    private static final String BUCKET = "eladmin-test";
+    private static final int MB = 1024 * 1024;
+
+    private static S3Client s3Client;
+    private static S3MultipartUploader uploader;
+
+    @BeforeAll
+    public static void setUp() {
+        AmzS3Config config = new AmzS3Config();
+        config.setRegion("us-east-1");
+        config.setEndPoint(System.getenv("S3_TEST_ENDPOINT"));
+        config.setAccessKey(env("S3_TEST_ACCESS_KEY", "minioadmin"));
+        config.setSecretKey(env("S3_TEST_SECRET_KEY", "minioadmin"));
+        config.setPartSize(5);
+        config.setMultipartThreshold(5);
+        config.setUploadConcurrency(2);
+        // 本地服务一般不支持虚拟主机方式访问存储桶
+        s3Client = S3Client.builder().region(Region.of(config.getRegion()))
+                .endpointOverride(URI.create(config.getEndPoint()))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(config.getAccessKey(), config.getSecretKey())))
+                .forcePathStyle(true)
+                .build();
+        uploader = new S3MultipartUploader(s3Client, config);
+        if (s3Client.listBuckets().buckets().stream().noneMatch(b -> BUCKET.equals(b.name()))) {
+            s3Client.createBucket(b -> b.bucket(BUCKET));
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        uploader.shutdown();
+        s3Client.close();
+    }
+
+    @Test
+    public void testParallelUpload() throws Exception {
+        byte[] data = random(12 * MB + 1);
+        uploader.upload(BUCKET, "parallel.bin", new ByteArrayInputStream(data), data.length, "application/octet-stream");
+        byte[] stored = s3Client.getObjectAsBytes(GetObjectRequest.builder().bucket(BUCKET).key("parallel.bin").build()).asByteArray();
+        assertArrayEquals(data, stored);
+    }
+
+    @Test
+    public void testResume() {
+        byte[] data = random(11 * MB);
+        int partSize = (int) uploader.partSize(data.length);
+        String uploadId = uploader.create(BUCKET, "resume.bin", "application/octet-stream");
+        // 先上传第 1、3 个分片，模拟中断后查询已上传的分片并补传第 2 个
+        uploader.uploadPart(BUCKET, "resume.bin", uploadId, 1, RequestBody.fromBytes(Arrays.copyOfRange(data, 0, partSize)));
+        uploader.uploadPart(BUCKET, "resume.bin", uploadId, 3, RequestBody.fromBytes(Arrays.copyOfRange(data, 2 * partSize, data.length)));
+        List<CompletedPart> parts = uploader.listParts(BUCKET, "resume.bin", uploadId);
+        assertEquals(Arrays.asList(1, 3), parts.stream().map(CompletedPart::partNumber).collect(Collectors.toList()));
+
+        uploader.uploadPart(BUCKET, "resume.bin", uploadId, 2, RequestBody.fromBytes(Arrays.copyOfRange(data, partSize, 2 * partSize)));
+        uploader.complete(BUCKET, "resume.bin", uploadId, uploader.listParts(BUCKET, "resume.bin", uploadId));
+        byte[] stored = s3Client.getObjectAsBytes(GetObjectRequest.builder().bucket(BUCKET).key("resume.bin").build()).asByteArray();
+        assertArrayEquals(data, stored);
+    }
+
+    @Test
+    public void testAbort() {
+        String uploadId = uploader.create(BUCKET, "abort.bin", "application/octet-stream");
+        uploader.uploadPart(BUCKET, "abort.bin", uploadId, 1, RequestBody.fromBytes(random(MB)));
+        uploader.abort(BUCKET, "abort.bin", uploadId);
+        assertThrows(NoSuchUploadException.class, () -> uploader.listParts(BUCKET, "abort.bin", uploadId));
+    }
+
+    private static byte[] random(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -803,11 +803,13 @@ CREATE TABLE `tool_local_storage` (
   `path` varchar(255) DEFAULT NULL COMMENT '文件存储路径',
   `type` varchar(255) DEFAULT NULL COMMENT '文件类型',
   `size` varchar(256) DEFAULT NULL COMMENT '文件大小',
+  `digest` char(64) DEFAULT NULL COMMENT '文件摘要 SHA-256',
   `create_by` varchar(255) DEFAULT NULL COMMENT '创建者',
   `update_by` varchar(255) DEFAULT NULL COMMENT '更新者',
   `create_time` datetime DEFAULT NULL COMMENT '创建日期',
   `update_time` datetime DEFAULT NULL COMMENT '更新时间',
-  PRIMARY KEY (`storage_id`) USING BTREE
+  PRIMARY KEY (`storage_id`) USING BTREE,
+  KEY `idx_digest` (`digest`)
 ) ENGINE=InnoDB AUTO_INCREMENT=13 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci ROW_FORMAT=COMPACT COMMENT='本地存储';
 
 -- ----------------------------
@@ -816,6 +818,22 @@ CREATE TABLE `tool_local_storage` (
 BEGIN;
 COMMIT;
 
+-- ----------------------------
+-- Table structure for tool_file_blob
+-- ----------------------------
+DROP TABLE IF EXISTS `tool_file_blob`;
+CREATE TABLE `tool_file_blob` (
+  `blob_id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `digest` char(64) NOT NULL COMMENT '文件摘要 SHA-256',
+  `path` varchar(255) NOT NULL COMMENT '文件存储路径',
+  `size` bigint(20) DEFAULT NULL COMMENT '文件大小/字节',
+  `ref_count` int(11) NOT NULL DEFAULT '1' COMMENT '引用数',
+  `create_time` datetime DEFAULT NULL COMMENT '创建日期',
+  PRIMARY KEY (`blob_id`) USING BTREE,
+  UNIQUE KEY `uniq_path` (`path`),
+  KEY `idx_digest` (`digest`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci ROW_FORMAT=COMPACT COMMENT='按内容存储的文件';
+
 -- ----------------------------
 -- Table structure for tool_s3_storage
 -- ----------------------------
@@ -841,4 +859,22 @@ CREATE TABLE `tool_s3_storage` (
 BEGIN;
 COMMIT;
 
+-- ----------------------------
+-- Table structure for tool_s3_multipart
+-- ----------------------------
+DROP TABLE IF EXISTS `tool_s3_multipart`;
+CREATE TABLE `tool_s3_multipart` (
+  `multipart_id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `upload_id` varchar(255) NOT NULL COMMENT 'S3 分片上传ID',
+  `file_name` varchar(255) NOT NULL COMMENT '文件名称',
+  `file_path` varchar(255) NOT NULL COMMENT '文件路径',
+  `file_size` bigint(20) NOT NULL COMMENT '文件大小/字节',
+  `part_size` bigint(20) NOT NULL COMMENT '分片大小/字节',
+  `create_by` varchar(255) NOT NULL COMMENT '创建者',
+  `update_by` varchar(255) NOT NULL COMMENT '更新者',
+  `create_time` datetime NOT NULL COMMENT '创建日期',
+  `update_time` datetime NOT NULL COMMENT '更新时间',
+  PRIMARY KEY (`multipart_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='s3 未完成的分片上传';
+
 SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,10 @@
+/*
+ sys_log 全文索引（可选）
+
+ 执行后将 sys-log.search 设置为 fulltext，日志模糊查询由多列 like '%关键字%' 的全表扫描改为全文索引的短语匹配
+ MySQL 使用 ngram 分词以支持中文，关键字最短长度取决于 ngram_token_size（默认 2），需与 sys-log.fulltext-min-length 一致
+ MariaDB 没有 ngram 分词器，需去掉 WITH PARSER ngram，此时按空格与标点分词，中文只能整词匹配
+ InnoDB 分区表不支持全文索引，与 sql/sys_log_partition.sql 只能二选一
+*/
+
+ALTER TABLE `sys_log` ADD FULLTEXT INDEX `ft_sys_log` (`username`, `description`, `address`, `request_ip`, `method`, `params`) WITH PARSER ngram;
@@ -0,0 +1,23 @@
+/*
+ sys_log 按月分区（可选）
+
+ 开启 sys-log.partition.enabled 前执行一次，之后由程序启动时与定时任务 sysLogPartitionTask 维护：
+ 提前创建后续月份的分区，超出 sys-log.partition.retention-months 的分区整体删除
+ 分区表的主键必须包含分区字段，因此主键改为 (log_id, create_time)
+ 数据量较大时 ALTER 会重建整张表，请在低峰期执行
+*/
+
+ALTER TABLE `sys_log` DROP PRIMARY KEY, ADD PRIMARY KEY (`log_id`, `create_time`);
+
+-- 本月之前的数据放入 phistory，程序只需从 pmax 中拆分出本月及后续月份的分区，不会搬动历史数据
+-- 最早的月份分区超出保留期时 phistory 整体删除
+SET @history = DATE_FORMAT(CURDATE(), '%Y-%m-01');
+SET @ddl = CONCAT('ALTER TABLE `sys_log` PARTITION BY RANGE COLUMNS (`create_time`) (',
+    'PARTITION phistory VALUES LESS THAN (''', @history, '''), ',
+    'PARTITION pmax VALUES LESS THAN (MAXVALUE))');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 每天凌晨 1 点维护分区
+INSERT INTO `sys_quartz_job` (`bean_name`, `cron_expression`, `is_pause`, `job_name`, `method_name`, `params`, `description`, `person_in_charge`, `email`, `sub_task`, `pause_after_failure`, `create_by`, `update_by`, `create_time`, `update_time`) VALUES ('sysLogPartitionTask', '0 0 1 * * ?', b'0', '日志分区维护', 'run', NULL, '创建后续月份的日志分区，删除过期分区', 'admin', NULL, NULL, b'0', 'admin', 'admin', NOW(), NOW());
@@ -0,0 +1,19 @@
+/*
+ 按内容存储的文件（可选）
+
+ 执行后将 file.dedup 设置为 true，本地存储与头像按 SHA-256 保存为 摘要.后缀，内容相同的文件只保存一份
+ ref_count 为引用该文件的记录数，删除记录时减一，为 0 时才删除文件
+ 开启前上传的文件不在该表中，删除时仍直接删除；关闭后已按内容存储的文件仍按引用数删除
+*/
+
+CREATE TABLE `tool_file_blob` (
+  `blob_id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `digest` char(64) NOT NULL COMMENT '文件摘要 SHA-256',
+  `path` varchar(255) NOT NULL COMMENT '文件存储路径',
+  `size` bigint(20) DEFAULT NULL COMMENT '文件大小/字节',
+  `ref_count` int(11) NOT NULL DEFAULT '1' COMMENT '引用数',
+  `create_time` datetime DEFAULT NULL COMMENT '创建日期',
+  PRIMARY KEY (`blob_id`) USING BTREE,
+  UNIQUE KEY `uniq_path` (`path`),
+  KEY `idx_digest` (`digest`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci ROW_FORMAT=COMPACT COMMENT='按内容存储的文件';
@@ -0,0 +1,9 @@
+/*
+ tool_local_storage 文件摘要
+
+ 已有数据库升级时执行，新安装的数据库已包含在 eladmin.sql 中
+ 上传时在写入磁盘的同时计算 SHA-256，用于下载时的 ETag、完整性校验与重复文件识别
+ 历史文件的 digest 为空，下载时退回到按文件大小与修改时间生成 ETag
+*/
+
+ALTER TABLE `tool_local_storage` ADD COLUMN `digest` char(64) DEFAULT NULL COMMENT '文件摘要 SHA-256' AFTER `size`, ADD INDEX `idx_digest` (`digest`);
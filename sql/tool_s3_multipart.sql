@@ -0,0 +1,20 @@
+/*
+ S3 分片上传断点续传
+
+ 记录未完成的分片上传，中断后客户端通过开始上传时返回的 ID 查询已上传的分片，继续上传缺少的分片
+ 完成或取消后删除记录；长期未完成的上传建议在存储桶中配置生命周期规则 AbortIncompleteMultipartUpload 自动清理
+*/
+
+CREATE TABLE `tool_s3_multipart` (
+  `multipart_id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT 'ID',
+  `upload_id` varchar(255) NOT NULL COMMENT 'S3 分片上传ID',
+  `file_name` varchar(255) NOT NULL COMMENT '文件名称',
+  `file_path` varchar(255) NOT NULL COMMENT '文件路径',
+  `file_size` bigint(20) NOT NULL COMMENT '文件大小/字节',
+  `part_size` bigint(20) NOT NULL COMMENT '分片大小/字节',
+  `create_by` varchar(255) NOT NULL COMMENT '创建者',
+  `update_by` varchar(255) NOT NULL COMMENT '更新者',
+  `create_time` datetime NOT NULL COMMENT '创建日期',
+  `update_time` datetime NOT NULL COMMENT '更新时间',
+  PRIMARY KEY (`multipart_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci COMMENT='s3 未完成的分片上传';